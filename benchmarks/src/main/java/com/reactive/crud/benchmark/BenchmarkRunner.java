@@ -0,0 +1,47 @@
+package com.reactive.crud.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// JMH entry point of benchmarks.jar. Takes the usual JMH arguments (e.g. a benchmark regex, -f, -wi, -i);
+// unless told otherwise it adds the GC profiler and writes JSON results under target/jmh/ so runs can be diffed
+public class BenchmarkRunner {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+            return;
+        }
+        if (cli.shouldList()) {
+            new Runner(cli).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        // gc.alloc.rate.norm (bytes per operation) is the number to watch for the mapping/codec paths
+        if (cli.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            Path results = Path.of("target", "jmh", LocalDateTime.now().format(RUN_ID) + ".json");
+            Files.createDirectories(results.getParent());
+            options.result(results.toString());
+        }
+        new Runner(options.build()).run();
+    }
+}
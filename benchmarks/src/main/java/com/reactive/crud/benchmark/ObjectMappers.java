@@ -0,0 +1,29 @@
+package com.reactive.crud.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+// ObjectMapper configured the way Quarkus configures the application's (and Vert.x's) mapper
+public final class ObjectMappers {
+
+    private ObjectMappers() {
+    }
+
+    // quarkus.jackson.serialization-inclusion=non-null, write-dates-as-timestamps=false,
+    // plus the Quarkus default of ignoring unknown properties
+    public static ObjectMapper application() {
+        return configure(new ObjectMapper());
+    }
+
+    // Applies the same settings to an existing mapper, e.g. Vert.x's shared DatabindCodec.mapper()
+    public static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper
+                .registerModule(new JavaTimeModule())
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
@@ -0,0 +1,62 @@
+package com.reactive.crud.cache;
+
+import com.reactive.crud.benchmark.ObjectMappers;
+import com.reactive.crud.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.json.jackson.DatabindCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// JSON + gzip of the whole listing as CompressedListingCache builds it; paid once per catalog version,
+// not per request, and scaled by listingSize
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ListingEncodeBenchmark {
+
+    @Param({"100", "1000"})
+    int listingSize;
+
+    private CompressedListingCache listingCache;
+    private List<ProductResponse> listing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        listingCache = new CompressedListingCache();
+        // Inside Quarkus the Vert.x mapper carries the application's Jackson settings
+        listingCache.objectMapper = ObjectMappers.configure(DatabindCodec.mapper());
+        listingCache.registry = new SimpleMeterRegistry();
+        listingCache.minResponseSize = 1024;
+        listingCache.init();
+
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        listing = LongStream.rangeClosed(1, listingSize)
+                .mapToObj(id -> new ProductResponse(id, "Product " + id, "Description of product " + id,
+                        new BigDecimal("199.99"), id % 10, now, now))
+                .toList();
+    }
+
+    @Benchmark
+    public CompressedListingCache.Body listingEncode() {
+        return listingCache.encode(listing);
+    }
+}
@@ -0,0 +1,77 @@
+package com.reactive.crud.cache;
+
+import com.reactive.crud.benchmark.ObjectMappers;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.dto.ProductShadowCopy;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.jackson.DatabindCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Encode/decode of the Redis values the product cache stores, through the Redis client's JSON codec
+// (Vert.x DatabindCodec over the application's ObjectMapper). The listing body is in ListingEncodeBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductCacheCodecBenchmark {
+
+    private DatabindCodec codec;
+    private ProductResponse product;
+    private ProductShadowCopy shadow;
+    private Buffer productBytes;
+    private Buffer shadowBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Inside Quarkus the Vert.x mapper carries the application's Jackson settings
+        ObjectMappers.configure(DatabindCodec.mapper());
+        codec = new DatabindCodec();
+
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        product = product(42L, now);
+        shadow = new ProductShadowCopy(product, 1_705_314_600_000L);
+        productBytes = codec.toBuffer(product, false);
+        shadowBytes = codec.toBuffer(shadow, false);
+    }
+
+    @Benchmark
+    public ProductResponse productRoundTrip() {
+        return codec.fromBuffer(codec.toBuffer(product, false), ProductResponse.class);
+    }
+
+    @Benchmark
+    public ProductResponse productDecode() {
+        return codec.fromBuffer(productBytes, ProductResponse.class);
+    }
+
+    @Benchmark
+    public ProductShadowCopy shadowRoundTrip() {
+        return codec.fromBuffer(codec.toBuffer(shadow, false), ProductShadowCopy.class);
+    }
+
+    @Benchmark
+    public ProductShadowCopy shadowDecode() {
+        return codec.fromBuffer(shadowBytes, ProductShadowCopy.class);
+    }
+
+    private static ProductResponse product(long id, LocalDateTime now) {
+        return new ProductResponse(id, "Product " + id, "Description of product " + id,
+                new BigDecimal("199.99"), id % 10, now, now);
+    }
+}
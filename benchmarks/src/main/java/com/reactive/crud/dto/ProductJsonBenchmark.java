@@ -0,0 +1,79 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.reactive.crud.benchmark.ObjectMappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the REST bodies (ProductResponse) and Kafka payloads (ProductEventDto)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductJsonBenchmark {
+
+    private ObjectWriter responseWriter;
+    private ObjectReader responseReader;
+    private ObjectWriter eventWriter;
+    private ObjectReader eventReader;
+
+    private ProductResponse response;
+    private byte[] responseJson;
+    private ProductEventDto event;
+    private byte[] eventJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = ObjectMappers.application();
+        // Resolved once, like the serializers Jackson caches per type in the running application
+        responseWriter = mapper.writerFor(ProductResponse.class);
+        responseReader = mapper.readerFor(ProductResponse.class);
+        eventWriter = mapper.writerFor(ProductEventDto.class);
+        eventReader = mapper.readerFor(ProductEventDto.class);
+
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        response = new ProductResponse(42L, "Mechanical Keyboard", "Hot-swappable switches, aluminium case",
+                new BigDecimal("149.90"), 7L, now, now.plusDays(3));
+        responseJson = responseWriter.writeValueAsBytes(response);
+        event = new ProductEventDto(ProductEventDto.EventType.UPDATED.name(), 42L, "Mechanical Keyboard",
+                now.toString());
+        eventJson = eventWriter.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ProductResponse deserializeResponse() throws IOException {
+        return responseReader.readValue(responseJson);
+    }
+
+    @Benchmark
+    public byte[] serializeEvent() throws IOException {
+        return eventWriter.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public ProductEventDto deserializeEvent() throws IOException {
+        return eventReader.readValue(eventJson);
+    }
+}
@@ -0,0 +1,55 @@
+package com.reactive.crud.repository;
+
+import io.vertx.sqlclient.Row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Fixed in-memory row with the products table's columns, so row mapping runs without a database
+final class BenchmarkRow implements Row {
+
+    private final List<String> columns;
+    private final List<Object> values;
+
+    BenchmarkRow(List<String> columns, Object... values) {
+        this.columns = columns;
+        this.values = new ArrayList<>(Arrays.asList(values));
+    }
+
+    @Override
+    public String getColumnName(int pos) {
+        return pos < 0 || pos >= columns.size() ? null : columns.get(pos);
+    }
+
+    @Override
+    public int getColumnIndex(String column) {
+        return columns.indexOf(column);
+    }
+
+    @Override
+    public Object getValue(int pos) {
+        return values.get(pos);
+    }
+
+    @Override
+    public Row addValue(Object value) {
+        values.add(value);
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+    }
+
+    @Override
+    public List<Class<?>> types() {
+        return values.stream().<Class<?>>map(value -> value == null ? Object.class : value.getClass()).toList();
+    }
+}
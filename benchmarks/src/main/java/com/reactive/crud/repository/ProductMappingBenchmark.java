@@ -0,0 +1,61 @@
+package com.reactive.crud.repository;
+
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.entity.Product;
+import io.vertx.mutiny.sqlclient.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Row -> Product -> ProductResponse, the per-row work of every findAll/findById and streamed export
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductMappingBenchmark {
+
+    private static final List<String> COLUMNS =
+            List.of("id", "name", "description", "price", "owner_id", "created_at", "updated_at");
+
+    private ProductRepository repository;
+    private Row row;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        repository = new ProductRepository();
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        row = Row.newInstance(new BenchmarkRow(COLUMNS, 42L, "Mechanical Keyboard",
+                "Hot-swappable switches, aluminium case", new BigDecimal("149.90"), 7L, now, now.plusDays(3)));
+        product = repository.toProduct(row);
+    }
+
+    @Benchmark
+    public Product rowToProduct() {
+        return repository.toProduct(row);
+    }
+
+    @Benchmark
+    public ProductResponse productToResponse() {
+        return ProductResponse.from(product);
+    }
+
+    @Benchmark
+    public ProductResponse rowToResponse() {
+        return ProductResponse.from(repository.toProduct(row));
+    }
+}
@@ -0,0 +1,99 @@
+package com.reactive.crud.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactive.crud.dto.ProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// The JSON listing of the current catalog version, serialized and gzipped once per catalog change
+// instead of once per request; concurrent requests for a new version share one build
+@ApplicationScoped
+public class CompressedListingCache {
+
+    public record Body(byte[] json, byte[] gzip) {
+
+        // Listings below the compression threshold are kept (and sent) as plain JSON
+        public boolean compressed() {
+            return gzip != null;
+        }
+    }
+
+    private record Entry(String version, Uni<Body> body) {
+    }
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "product.compression.min-response-size", defaultValue = "1024")
+    int minResponseSize;
+
+    private final AtomicReference<Entry> current = new AtomicReference<>();
+    private Counter builds;
+
+    @PostConstruct
+    void init() {
+        builds = registry.counter("product.listing.cache.builds");
+    }
+
+    public Uni<Body> get(String version, Supplier<Uni<List<ProductResponse>>> loader) {
+        Entry entry = current.get();
+        if (entry != null && entry.version().equals(version)) {
+            return entry.body();
+        }
+        Uni<Body> body = Uni.createFrom().deferred(loader::get)
+                .onItem().transform(this::encode)
+                .memoize().indefinitely();
+        Entry fresh = new Entry(version, body);
+        // Last writer wins: at worst a racing request builds the same version twice
+        current.set(fresh);
+        return body.onFailure().invoke(() -> current.compareAndSet(fresh, null));
+    }
+
+    Body encode(List<ProductResponse> products) {
+        builds.increment();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(products);
+            if (json.length < minResponseSize) {
+                return new Body(json, null);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+            return new Body(json, buffer.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // True unless gzip is missing from Accept-Encoding or explicitly refused with q=0
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                return params.length < 2 || !params[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
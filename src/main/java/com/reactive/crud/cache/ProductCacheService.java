@@ -1,28 +1,41 @@
 package com.reactive.crud.cache;
 
 import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.dto.ProductShadowCopy;
 import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
 import io.quarkus.redis.datasource.value.ReactiveValueCommands;
 import io.quarkus.redis.datasource.value.SetArgs;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.time.Duration;
+import java.util.Collection;
 
 @ApplicationScoped
 public class ProductCacheService {
 
     private static final Logger LOG = Logger.getLogger(ProductCacheService.class);
     private static final String CACHE_KEY_PREFIX = "product:";
+    // Shadow copies outlive the cache entry so reads can degrade to them while Postgres is unavailable
+    private static final String SHADOW_KEY_PREFIX = "product:shadow:";
     private static final Duration CACHE_TTL = Duration.ofMinutes(10);
 
     private final ReactiveValueCommands<String, ProductResponse> cache;
+    private final ReactiveValueCommands<String, ProductShadowCopy> shadows;
+    private final ReactiveKeyCommands<String> keys;
+    private final Duration shadowTtl;
 
     @Inject
-    public ProductCacheService(ReactiveRedisDataSource redis) {
+    public ProductCacheService(ReactiveRedisDataSource redis,
+                               @ConfigProperty(name = "product.cache.shadow-ttl", defaultValue = "24h") Duration shadowTtl) {
         this.cache = redis.value(ProductResponse.class);
+        this.shadows = redis.value(ProductShadowCopy.class);
+        this.keys = redis.key();
+        this.shadowTtl = shadowTtl;
     }
 
     public Uni<ProductResponse> get(Long productId) {
@@ -37,16 +50,31 @@ public class ProductCacheService {
                 });
     }
 
+    public Uni<ProductShadowCopy> getShadow(Long productId) {
+        return shadows.get(SHADOW_KEY_PREFIX + productId);
+    }
+
     public Uni<Void> set(Long productId, ProductResponse product) {
         String key = CACHE_KEY_PREFIX + productId;
-        return cache.set(key, product, new SetArgs().ex(CACHE_TTL))
-                .replaceWithVoid()
+        ProductShadowCopy shadow = new ProductShadowCopy(product, System.currentTimeMillis());
+        return Uni.combine().all().unis(
+                        cache.set(key, product, new SetArgs().ex(CACHE_TTL)),
+                        shadows.set(SHADOW_KEY_PREFIX + productId, shadow, new SetArgs().ex(shadowTtl)))
+                .discardItems()
                 .invoke(() -> LOG.debugf("Cached product id: %d", productId));
     }
 
+    // Only fills a missing entry and writes no shadow copy: used for warm-up data that may be older than what
+    // other instances already cached, and whose age is unknown
+    public Uni<Void> setIfAbsent(Long productId, ProductResponse product) {
+        return cache.set(CACHE_KEY_PREFIX + productId, product, new SetArgs().nx().ex(CACHE_TTL));
+    }
+
+    // Drops the shadow copy too: a deleted product must not come back during an outage
     public Uni<Boolean> delete(Long productId) {
         String key = CACHE_KEY_PREFIX + productId;
-        return cache.getdel(key)
+        return keys.del(SHADOW_KEY_PREFIX + productId)
+                .chain(() -> cache.getdel(key))
                 .onItem().transform(deleted -> deleted != null)
                 .invoke(deleted -> {
                     if (deleted) {
@@ -55,6 +83,22 @@ public class ProductCacheService {
                 });
     }
 
+    // One DEL for the batch's shadow copies, one for its entries; returns how many entries were actually cached
+    public Uni<Integer> deleteAll(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Uni.createFrom().item(0);
+        }
+        String[] shadowKeys = productIds.stream()
+                .map(productId -> SHADOW_KEY_PREFIX + productId)
+                .toArray(String[]::new);
+        String[] cacheKeys = productIds.stream()
+                .map(productId -> CACHE_KEY_PREFIX + productId)
+                .toArray(String[]::new);
+        return keys.del(shadowKeys)
+                .chain(() -> keys.del(cacheKeys))
+                .invoke(deleted -> LOG.debugf("Deleted %d of %d cached products", deleted, Integer.valueOf(cacheKeys.length)));
+    }
+
     public Uni<Void> clear() {
         // In production, you might want to delete by pattern
         // For simplicity, we'll just log
@@ -0,0 +1,36 @@
+package com.reactive.crud.deadline;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@ConfigMapping(prefix = "product.deadline")
+public interface DeadlineConfig {
+
+    @WithDefault("true")
+    boolean enabled();
+
+    // Client-supplied budget in milliseconds; overrides the route default
+    @WithDefault("X-Request-Timeout")
+    String header();
+
+    // Upper bound for client-supplied budgets
+    @WithDefault("30s")
+    Duration max();
+
+    Map<String, Route> route();
+
+    interface Route {
+        // Path prefix; the longest matching prefix wins
+        String path();
+
+        // Empty means every method
+        Optional<Set<String>> methods();
+
+        Duration timeout();
+    }
+}
@@ -0,0 +1,22 @@
+package com.reactive.crud.deadline;
+
+// The request ran out of time (or its client went away) before the named call could complete
+public class DeadlineExceededException extends RuntimeException {
+
+    private final String operation;
+    private final boolean abandoned;
+
+    public DeadlineExceededException(String operation, boolean abandoned) {
+        super((abandoned ? "Client gone, abandoned " : "Request deadline exceeded at ") + operation);
+        this.operation = operation;
+        this.abandoned = abandoned;
+    }
+
+    public String operation() {
+        return operation;
+    }
+
+    public boolean abandoned() {
+        return abandoned;
+    }
+}
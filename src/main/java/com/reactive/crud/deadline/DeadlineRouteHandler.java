@@ -0,0 +1,74 @@
+package com.reactive.crud.deadline;
+
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Runs first on /api/*, so time spent in rate limiting, admission and queues counts against the deadline
+@ApplicationScoped
+public class DeadlineRouteHandler {
+
+    @Inject
+    DeadlineConfig config;
+
+    void register(@Observes Router router) {
+        if (config.enabled()) {
+            router.route("/api/*").order(-120).handler(this::handle);
+        }
+    }
+
+    void handle(RoutingContext context) {
+        Duration timeout;
+        try {
+            timeout = timeoutOf(context.request().getHeader(config.header()), context.normalizedPath(),
+                    context.request().method().name());
+        } catch (NumberFormatException e) {
+            context.response()
+                    .setStatusCode(400)
+                    .putHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+                    .end(config.header() + " must be a positive number of milliseconds");
+            return;
+        }
+        if (timeout != null) {
+            RequestDeadline.attach(RequestDeadline.after(timeout, () -> context.response().closed()));
+        }
+        context.next();
+    }
+
+    // null when neither the client nor a route sets a budget
+    Duration timeoutOf(String header, String path, String method) {
+        if (header != null) {
+            long millis = Long.parseLong(header.trim());
+            if (millis <= 0) {
+                throw new NumberFormatException(header);
+            }
+            Duration requested = Duration.ofMillis(millis);
+            return requested.compareTo(config.max()) > 0 ? config.max() : requested;
+        }
+        Map.Entry<String, DeadlineConfig.Route> best = null;
+        for (Map.Entry<String, DeadlineConfig.Route> entry : config.route().entrySet()) {
+            DeadlineConfig.Route route = entry.getValue();
+            boolean methodMatches = route.methods().map(methods -> methods.contains(method)).orElse(true);
+            if (methodMatches && path.startsWith(route.path()) && (best == null || moreSpecific(route, best.getValue()))) {
+                best = entry;
+            }
+        }
+        return best == null ? null : best.getValue().timeout();
+    }
+
+    // Longer prefix wins; on the same prefix a route listing methods beats one matching every method,
+    // so the outcome never depends on the config map's iteration order
+    private static boolean moreSpecific(DeadlineConfig.Route candidate, DeadlineConfig.Route best) {
+        int byLength = Integer.compare(candidate.path().length(), best.path().length());
+        if (byLength != 0) {
+            return byLength > 0;
+        }
+        return candidate.methods().isPresent() && best.methods().isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+package com.reactive.crud.deadline;
+
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+// Point in time by which a request must be answered. Set per HTTP request by DeadlineRouteHandler and
+// read back from the request's (duplicated) Vert.x context; calls outside a request get NONE
+public final class RequestDeadline {
+
+    public static final RequestDeadline NONE = new RequestDeadline(Long.MAX_VALUE, () -> false, System::nanoTime);
+
+    private static final String CONTEXT_KEY = "product.request-deadline";
+
+    private final long expiresAtNanos;
+    private final BooleanSupplier abandoned;
+    private final LongSupplier nanoClock;
+
+    private RequestDeadline(long expiresAtNanos, BooleanSupplier abandoned, LongSupplier nanoClock) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.abandoned = abandoned;
+        this.nanoClock = nanoClock;
+    }
+
+    // abandoned reports whether the client has gone away (e.g. its connection closed)
+    public static RequestDeadline after(Duration timeout, BooleanSupplier abandoned) {
+        return after(timeout, abandoned, System::nanoTime);
+    }
+
+    static RequestDeadline after(Duration timeout, BooleanSupplier abandoned, LongSupplier nanoClock) {
+        return new RequestDeadline(nanoClock.getAsLong() + timeout.toNanos(), abandoned, nanoClock);
+    }
+
+    public static RequestDeadline current() {
+        if (!VertxContext.isOnDuplicatedContext()) {
+            return NONE;
+        }
+        return ContextLocals.<RequestDeadline>get(CONTEXT_KEY).orElse(NONE);
+    }
+
+    static boolean attach(RequestDeadline deadline) {
+        if (!VertxContext.isOnDuplicatedContext()) {
+            return false;
+        }
+        ContextLocals.put(CONTEXT_KEY, deadline);
+        return true;
+    }
+
+    public Duration remaining() {
+        if (this == NONE) {
+            return Duration.ofNanos(Long.MAX_VALUE);
+        }
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - nanoClock.getAsLong()));
+    }
+
+    // Runs the call with whatever time the request has left; does not start it at all when the
+    // deadline has passed or the client is gone, and abandons it (cancels the subscription) on expiry
+    public <T> Uni<T> bound(String operation, Uni<T> call) {
+        if (this == NONE) {
+            return call;
+        }
+        return Uni.createFrom().deferred(() -> {
+            if (abandoned.getAsBoolean()) {
+                return Uni.createFrom().failure(new DeadlineExceededException(operation, true));
+            }
+            Duration remaining = remaining();
+            if (remaining.isZero()) {
+                return Uni.createFrom().failure(new DeadlineExceededException(operation, false));
+            }
+            return call.ifNoItem().after(remaining)
+                    .failWith(() -> new DeadlineExceededException(operation, false));
+        });
+    }
+
+    // For writes: checks the deadline only before the call starts. A statement already sent still commits when
+    // its subscription is cancelled, so once started the call is never abandoned and finishes late instead
+    public <T> Uni<T> admit(String operation, Uni<T> call) {
+        if (this == NONE) {
+            return call;
+        }
+        return Uni.createFrom().deferred(() -> {
+            if (abandoned.getAsBoolean()) {
+                return Uni.createFrom().failure(new DeadlineExceededException(operation, true));
+            }
+            if (remaining().isZero()) {
+                return Uni.createFrom().failure(new DeadlineExceededException(operation, false));
+            }
+            return call;
+        });
+    }
+
+    // The smaller of the given timeout and the time left
+    public Duration cap(Duration timeout) {
+        Duration remaining = remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+}
@@ -0,0 +1,13 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record EnrichedProductResponse(
+        @JsonProperty("product")
+        ProductResponse product,
+
+        // null when the product has no owner or the owner lookup failed
+        @JsonProperty("owner")
+        ExternalUserDto owner
+) {
+}
@@ -0,0 +1,40 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record ExportResult(
+        @JsonProperty("path")
+        String path,
+
+        @JsonProperty("format")
+        String format,
+
+        @JsonProperty("compression")
+        String compression,
+
+        @JsonProperty("records")
+        long records,
+
+        // Size on disk, after compression
+        @JsonProperty("bytes")
+        long bytes,
+
+        @JsonProperty("uncompressedBytes")
+        long uncompressedBytes,
+
+        @JsonProperty("durationMs")
+        long durationMs,
+
+        @JsonProperty("recordsPerSecond")
+        double recordsPerSecond,
+
+        @JsonProperty("megabytesPerSecond")
+        double megabytesPerSecond
+) {
+    public static ExportResult of(String path, String format, String compression,
+                                  long records, long bytes, long uncompressedBytes, long durationNanos) {
+        double seconds = Math.max(durationNanos, 1) / 1_000_000_000.0;
+        return new ExportResult(path, format, compression, records, bytes, uncompressedBytes,
+                durationNanos / 1_000_000, records / seconds, bytes / seconds / (1024 * 1024));
+    }
+}
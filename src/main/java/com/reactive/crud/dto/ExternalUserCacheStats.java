@@ -0,0 +1,24 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record ExternalUserCacheStats(
+        @JsonProperty("requests")
+        long requests,
+
+        @JsonProperty("hits")
+        long hits,
+
+        @JsonProperty("misses")
+        long misses,
+
+        @JsonProperty("loadFailures")
+        long loadFailures,
+
+        @JsonProperty("size")
+        int size,
+
+        @JsonProperty("hitRatio")
+        double hitRatio
+) {
+}
@@ -0,0 +1,23 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Redis entry for an Idempotency-Key: a placeholder while the first request runs, then its response
+public record IdempotentResponse(
+        @JsonProperty("fingerprint")
+        String fingerprint,
+
+        @JsonProperty("completed")
+        boolean completed,
+
+        @JsonProperty("product")
+        ProductResponse product
+) {
+    public static IdempotentResponse inProgress(String fingerprint) {
+        return new IdempotentResponse(fingerprint, false, null);
+    }
+
+    public static IdempotentResponse completed(String fingerprint, ProductResponse product) {
+        return new IdempotentResponse(fingerprint, true, product);
+    }
+}
@@ -0,0 +1,58 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record ImportReport(
+        @JsonProperty("file")
+        String file,
+
+        @JsonProperty("format")
+        String format,
+
+        @JsonProperty("lines")
+        long lines,
+
+        @JsonProperty("imported")
+        long imported,
+
+        @JsonProperty("rejected")
+        long rejected,
+
+        // First few rejected lines, with the reason
+        @JsonProperty("rejections")
+        List<Rejection> rejections,
+
+        @JsonProperty("durationMs")
+        long durationMs,
+
+        @JsonProperty("rowsPerSecond")
+        double rowsPerSecond,
+
+        @JsonProperty("cacheInvalidation")
+        CacheInvalidation cacheInvalidation
+) {
+    public record Rejection(
+            @JsonProperty("line")
+            long line,
+
+            @JsonProperty("reason")
+            String reason
+    ) {
+    }
+
+    public record CacheInvalidation(
+            // Imported rows that carried an id and may have been cached
+            @JsonProperty("requested")
+            long requested,
+
+            // Entries actually present in Redis and removed
+            @JsonProperty("removed")
+            long removed,
+
+            @JsonProperty("failedBatches")
+            long failedBatches
+    ) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.reactive.crud.dto;
+
+// A product read by id; stale when it came from the shadow copy because the database failed
+public record ProductLookup(ProductResponse product, boolean stale, long ageSeconds) {
+
+    public static ProductLookup fresh(ProductResponse product) {
+        return new ProductLookup(product, false, 0);
+    }
+
+    public static ProductLookup stale(ProductShadowCopy copy, long nowEpochMillis) {
+        return new ProductLookup(copy.product(), true,
+                Math.max(0, (nowEpochMillis - copy.cachedAtEpochMillis()) / 1000));
+    }
+}
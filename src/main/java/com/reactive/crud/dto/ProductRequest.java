@@ -20,6 +20,12 @@ public record ProductRequest(
         @NotNull(message = "Product price is required")
         @DecimalMin(value = "0.0", inclusive = true, message = "Price must be greater than or equal to 0")
         @JsonProperty("price")
-        BigDecimal price
+        BigDecimal price,
+
+        @JsonProperty("ownerId")
+        Long ownerId
 ) {
+    public ProductRequest(String name, String description, BigDecimal price) {
+        this(name, description, price, null);
+    }
 }
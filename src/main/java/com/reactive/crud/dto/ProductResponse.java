@@ -20,20 +20,31 @@ public record ProductResponse(
         @JsonProperty("price")
         BigDecimal price,
 
+        @JsonProperty("ownerId")
+        Long ownerId,
+
+        // ISO-8601 with the full (microsecond) precision of the row: validators are derived from updatedAt,
+        // so a copy read back from Redis or Kafka must carry the same value as the database
         @JsonProperty("createdAt")
-        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
         LocalDateTime createdAt,
 
         @JsonProperty("updatedAt")
-        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
         LocalDateTime updatedAt
 ) {
+    public ProductResponse(Long id, String name, String description, BigDecimal price,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, description, price, null, createdAt, updatedAt);
+    }
+
     public static ProductResponse from(Product product) {
         return new ProductResponse(
                 product.getId(),
                 product.getName(),
                 product.getDescription(),
                 product.getPrice(),
+                product.getOwnerId(),
                 product.getCreatedAt(),
                 product.getUpdatedAt()
         );
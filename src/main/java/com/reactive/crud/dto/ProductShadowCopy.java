@@ -0,0 +1,13 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Long-lived copy of a cached product, read only when the database cannot answer
+public record ProductShadowCopy(
+        @JsonProperty("product")
+        ProductResponse product,
+
+        @JsonProperty("cachedAt")
+        long cachedAtEpochMillis
+) {
+}
@@ -0,0 +1,23 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.reactive.crud.entity.ProductDeletion;
+
+import java.time.LocalDateTime;
+
+public record ProductTombstone(
+        @JsonProperty("id")
+        Long id,
+
+        @JsonProperty("deleted")
+        boolean deleted,
+
+        @JsonProperty("deletedAt")
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime deletedAt
+) {
+    public static ProductTombstone from(ProductDeletion deletion) {
+        return new ProductTombstone(deletion.productId(), true, deletion.deletedAt());
+    }
+}
@@ -0,0 +1,51 @@
+package com.reactive.crud.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record ShardedExportResult(
+        // In id order. Each part is a complete file in the requested format, so only ndjson parts can simply be
+        // concatenated into one id-ordered export (json parts are separate arrays, csv parts repeat the header)
+        @JsonProperty("shards")
+        List<Shard> shards,
+
+        @JsonProperty("records")
+        long records,
+
+        @JsonProperty("bytes")
+        long bytes,
+
+        @JsonProperty("durationMs")
+        long durationMs,
+
+        @JsonProperty("recordsPerSecond")
+        double recordsPerSecond,
+
+        @JsonProperty("megabytesPerSecond")
+        double megabytesPerSecond
+) {
+    public record Shard(
+            @JsonProperty("index")
+            int index,
+
+            @JsonProperty("fromId")
+            long fromId,
+
+            // Exclusive
+            @JsonProperty("toId")
+            long toId,
+
+            @JsonProperty("result")
+            ExportResult result
+    ) {
+    }
+
+    public static ShardedExportResult of(List<Shard> shards, long durationNanos) {
+        long records = shards.stream().mapToLong(shard -> shard.result().records()).sum();
+        long bytes = shards.stream().mapToLong(shard -> shard.result().bytes()).sum();
+        double seconds = Math.max(durationNanos, 1) / 1_000_000_000.0;
+        return new ShardedExportResult(shards, records, bytes, durationNanos / 1_000_000,
+                records / seconds, bytes / seconds / (1024 * 1024));
+    }
+}
@@ -0,0 +1,8 @@
+package com.reactive.crud.entity;
+
+import java.time.LocalDateTime;
+
+// The catalog_version row: a counter bumped by every write to products, the row count it left behind
+// and the database time of that write
+public record CatalogVersion(long version, long count, LocalDateTime lastModified) {
+}
@@ -10,6 +10,7 @@ public class Product {
     private String name;
     private String description;
     private BigDecimal price;
+    private Long ownerId;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
@@ -30,6 +31,12 @@ public class Product {
         this.updatedAt = updatedAt;
     }
 
+    public Product(Long id, String name, String description, BigDecimal price, Long ownerId,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, description, price, createdAt, updatedAt);
+        this.ownerId = ownerId;
+    }
+
     public Long getId() {
         return id;
     }
@@ -62,6 +69,14 @@ public class Product {
         this.price = price;
     }
 
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -98,6 +113,7 @@ public class Product {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", price=" + price +
+                ", ownerId=" + ownerId +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
@@ -0,0 +1,7 @@
+package com.reactive.crud.entity;
+
+import java.time.LocalDateTime;
+
+// Row of the product_deletions log, filled by a trigger on DELETE
+public record ProductDeletion(long seq, Long productId, LocalDateTime deletedAt) {
+}
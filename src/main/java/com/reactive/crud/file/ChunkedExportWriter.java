@@ -0,0 +1,118 @@
+package com.reactive.crud.file;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.reactive.crud.dto.ProductResponse;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Encodes records one by one (format, then compression) and hands out the encoded bytes in chunks of ~chunkSize
+final class ChunkedExportWriter {
+
+    private final ExportFormat format;
+    private final ByteArrayOutputStream out;
+    // Counts bytes before compression; writes go through the compressor into out
+    private final CountingOutputStream encoded;
+    private final SequenceWriter sequence;
+    private final int chunkSize;
+
+    long records;
+    long bytes;
+
+    ChunkedExportWriter(ExportFormat format, ExportCompression compression,
+                        ObjectMapper objectMapper, CsvMapper csvMapper, int chunkSize) {
+        this.format = format;
+        this.chunkSize = chunkSize;
+        this.out = new ByteArrayOutputStream(chunkSize + 8192);
+        try {
+            this.encoded = new CountingOutputStream(compression.wrap(out));
+            this.sequence = open(format, objectMapper, csvMapper, encoded);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long uncompressedBytes() {
+        return encoded.count;
+    }
+
+    List<Buffer> write(Object item) {
+        try {
+            sequence.write(item);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        records++;
+        return out.size() >= chunkSize ? List.of(drain()) : List.of();
+    }
+
+    List<Buffer> finish() {
+        try {
+            sequence.close();
+            if (format == ExportFormat.NDJSON && records > 0) {
+                encoded.write('\n');
+            }
+            // Writes the gzip trailer / final zstd frame
+            encoded.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return List.of(drain());
+    }
+
+    private Buffer drain() {
+        Buffer chunk = Buffer.buffer(out.toByteArray());
+        bytes += chunk.length();
+        out.reset();
+        return chunk;
+    }
+
+    private static SequenceWriter open(ExportFormat format, ObjectMapper objectMapper, CsvMapper csvMapper,
+                                       OutputStream target) throws IOException {
+        ObjectWriter json = objectMapper.writer()
+                // Flushing per record would end a compression block per product
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                // The compressor is closed by finish(), after the NDJSON trailing newline
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return switch (format) {
+            case JSON -> json.withDefaultPrettyPrinter().writeValuesAsArray(target);
+            case JSON_COMPACT -> json.writeValuesAsArray(target);
+            case NDJSON -> json.withRootValueSeparator("\n").writeValues(target);
+            case CSV -> csvMapper.writer(csvMapper.schemaFor(ProductResponse.class).withHeader())
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValues(target);
+        };
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
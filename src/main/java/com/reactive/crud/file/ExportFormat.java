@@ -0,0 +1,35 @@
+package com.reactive.crud.file;
+
+import java.util.Arrays;
+
+public enum ExportFormat {
+    // Pretty-printed JSON array, the historical export format
+    JSON("json", "json"),
+    JSON_COMPACT("json-compact", "json"),
+    // One JSON object per line, splittable and appendable
+    NDJSON("ndjson", "ndjson"),
+    CSV("csv", "csv");
+
+    private final String param;
+    private final String extension;
+
+    ExportFormat(String param, String extension) {
+        this.param = param;
+        this.extension = extension;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParam(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.param.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown export format: " + value));
+    }
+}
@@ -0,0 +1,70 @@
+package com.reactive.crud.file;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// exports/manifest.json: watermarks for the next incremental export and a history of recent exports
+public record ExportManifest(
+        // Highest products.updated_at included so far
+        @JsonProperty("updatedAtWatermark")
+        LocalDateTime updatedAtWatermark,
+
+        // Highest product_deletions.seq included so far
+        @JsonProperty("deletionWatermark")
+        long deletionWatermark,
+
+        @JsonProperty("exports")
+        List<Entry> exports
+) {
+    private static final int MAX_HISTORY = 50;
+
+    public enum Type {
+        FULL, DELTA
+    }
+
+    public record Entry(
+            @JsonProperty("path")
+            String path,
+
+            @JsonProperty("type")
+            Type type,
+
+            @JsonProperty("records")
+            long records,
+
+            @JsonProperty("tombstones")
+            long tombstones,
+
+            @JsonProperty("updatedAtWatermark")
+            LocalDateTime updatedAtWatermark,
+
+            @JsonProperty("deletionWatermark")
+            long deletionWatermark,
+
+            @JsonProperty("createdAt")
+            LocalDateTime createdAt
+    ) {
+    }
+
+    public static ExportManifest empty() {
+        return new ExportManifest(null, 0, List.of());
+    }
+
+    // Watermarks only move forward: an export that started before a newer one was recorded cannot rewind them
+    public ExportManifest record(Entry entry) {
+        List<Entry> history = new ArrayList<>(exports);
+        history.add(entry);
+        if (history.size() > MAX_HISTORY) {
+            history = history.subList(history.size() - MAX_HISTORY, history.size());
+        }
+        LocalDateTime updatedAt = updatedAtWatermark == null
+                || (entry.updatedAtWatermark() != null && entry.updatedAtWatermark().isAfter(updatedAtWatermark))
+                ? entry.updatedAtWatermark()
+                : updatedAtWatermark;
+        return new ExportManifest(updatedAt, Math.max(deletionWatermark, entry.deletionWatermark()),
+                List.copyOf(history));
+    }
+}
@@ -0,0 +1,123 @@
+package com.reactive.crud.file;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.file.CopyOptions;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.UnaryOperator;
+
+@ApplicationScoped
+public class ExportManifestStore {
+
+    private static final Logger LOG = Logger.getLogger(ExportManifestStore.class);
+    private static final String EXPORT_DIR = "exports";
+    private static final String MANIFEST = Paths.get(EXPORT_DIR, "manifest.json").toString();
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    FileService fileService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final Deque<Runnable> updates = new ArrayDeque<>();
+    private boolean updating;
+    private boolean draining;
+
+    public Uni<ExportManifest> load() {
+        return fileService.fileExists(MANIFEST)
+                .chain(exists -> exists
+                        ? vertx.fileSystem().readFile(MANIFEST)
+                                .onItem().transform(this::parse)
+                        : Uni.createFrom().item(ExportManifest.empty()));
+    }
+
+    // Load, change, save - one update at a time, so concurrent exports neither drop each other's entries
+    // nor save a manifest that was loaded before the other one was written
+    public Uni<ExportManifest> update(UnaryOperator<ExportManifest> change) {
+        return Uni.createFrom().emitter(emitter -> {
+            synchronized (this) {
+                updates.addLast(() -> load()
+                        .onItem().transform(change)
+                        .call(this::save)
+                        .subscribe().with(
+                                manifest -> {
+                                    release();
+                                    emitter.complete(manifest);
+                                },
+                                failure -> {
+                                    release();
+                                    emitter.fail(failure);
+                                }));
+            }
+            drain();
+        });
+    }
+
+    // Same flat loop as the mail dispatcher: an update that completes synchronously releases from inside
+    // run(), which turns into another turn of this loop instead of a nested drain
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (updating || updates.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                next = updates.pollFirst();
+                updating = true;
+            }
+            next.run();
+        }
+    }
+
+    private void release() {
+        synchronized (this) {
+            updating = false;
+        }
+        drain();
+    }
+
+    // Written to a temp file and moved over the old one, so readers never see a half-written manifest
+    public Uni<Void> save(ExportManifest manifest) {
+        String temp = MANIFEST + ".tmp";
+        return fileService.createDirectory(EXPORT_DIR)
+                .chain(() -> vertx.fileSystem().writeFile(temp, Buffer.buffer(serialize(manifest))))
+                .chain(() -> vertx.fileSystem().move(temp, MANIFEST,
+                        new CopyOptions().setReplaceExisting(true).setAtomicMove(true)))
+                .invoke(() -> LOG.debugf("Export manifest updated (watermark %s)", manifest.updatedAtWatermark()));
+    }
+
+    private ExportManifest parse(Buffer buffer) {
+        try {
+            return objectMapper.readValue(buffer.getBytes(), ExportManifest.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable export manifest " + MANIFEST, e);
+        }
+    }
+
+    private byte[] serialize(ExportManifest manifest) {
+        try {
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize export manifest", e);
+        }
+    }
+}
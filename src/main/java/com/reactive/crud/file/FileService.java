@@ -1,8 +1,13 @@
 package com.reactive.crud.file;
 
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.file.OpenOptions;
 import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.file.AsyncFile;
+import io.vertx.mutiny.core.file.FileProps;
+import io.vertx.mutiny.core.parsetools.RecordParser;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
@@ -60,20 +65,27 @@ public class FileService {
                 );
     }
 
-    public Uni<String> exportProductsToFile(String jsonContent) {
-        String fileName = "products_export_" + System.currentTimeMillis() + ".json";
-        Path exportPath = Paths.get(EXPORT_DIR, fileName);
+    // Resolves a file name inside the export directory, rejecting anything that would escape it
+    public Path exportPath(String fileName) {
+        Path exportDir = Paths.get(EXPORT_DIR).toAbsolutePath().normalize();
+        Path path = exportDir.resolve(fileName).normalize();
+        if (fileName.isBlank() || !path.getParent().equals(exportDir)) {
+            throw new IllegalArgumentException("Invalid export file name: " + fileName);
+        }
+        return path;
+    }
 
-        return createDirectory(EXPORT_DIR)
-                .replaceWith(exportPath.toString())
-                .chain(path -> writeFile(path, jsonContent)
-                        .replaceWith(path)
-                )
-                .invoke(path -> LOG.infof("Products exported to: %s", path));
+    // Lines are emitted as downstream requests them; the file is read no faster than they are consumed
+    public Multi<Buffer> readLines(Path path, int maxLineLength) {
+        return Multi.createFrom().resourceFromUni(
+                        () -> vertx.fileSystem().open(path.toString(), new OpenOptions().setRead(true)),
+                        file -> RecordParser.newDelimited("\n", file)
+                                .maxRecordSize(maxLineLength)
+                                .toMulti())
+                .withFinalizer((AsyncFile file) -> file.close());
     }
 
-    public Uni<String> readProductsExport(String fileName) {
-        Path exportPath = Paths.get(EXPORT_DIR, fileName);
-        return readFile(exportPath.toString());
+    public Uni<FileProps> fileProps(Path path) {
+        return vertx.fileSystem().props(path.toString());
     }
 }
@@ -0,0 +1,105 @@
+package com.reactive.crud.file;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reactive.crud.dto.ExportResult;
+import com.reactive.crud.dto.ProductResponse;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.file.AsyncFile;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.file.Paths;
+
+@ApplicationScoped
+public class ProductExporter {
+
+    private static final Logger LOG = Logger.getLogger(ProductExporter.class);
+    private static final String EXPORT_DIR = "exports";
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    FileService fileService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "product.export.chunk-size", defaultValue = "65536")
+    int chunkSize;
+
+    // Same date handling as the REST layer (@JsonFormat on ProductResponse), columns in record order
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    public Uni<ExportResult> exportProducts(Multi<ProductResponse> products,
+                                            ExportFormat format, ExportCompression compression) {
+        return export("products_export", products, format, compression);
+    }
+
+    public Uni<ExportResult> export(String baseName, Multi<?> items,
+                                    ExportFormat format, ExportCompression compression) {
+        return exportTo(baseName + "_" + System.currentTimeMillis(), items, format, compression);
+    }
+
+    // Encodes items as they arrive; memory is bounded by one chunk, not by the catalog size
+    public Uni<ExportResult> exportTo(String name, Multi<?> items,
+                                      ExportFormat format, ExportCompression compression) {
+        String fileName = name + "." + format.extension() + compression.suffix();
+        String path = Paths.get(EXPORT_DIR, fileName).toString();
+        long start = System.nanoTime();
+
+        return fileService.createDirectory(EXPORT_DIR)
+                .chain(() -> vertx.fileSystem().open(path,
+                        new OpenOptions().setWrite(true).setCreate(true).setTruncateExisting(true)))
+                .chain(file -> {
+                    ChunkedExportWriter writer = new ChunkedExportWriter(format, compression,
+                            objectMapper, csvMapper, chunkSize);
+                    return writeChunks(file, items, writer)
+                            .call(file::flush)
+                            .eventually(file::close)
+                            .onFailure().call(() -> fileService.deleteFile(path).onFailure().recoverWithNull())
+                            .replaceWith(() -> ExportResult.of(path, format.param(), compression.param(),
+                                    writer.records, writer.bytes, writer.uncompressedBytes(),
+                                    System.nanoTime() - start));
+                })
+                .invoke(result -> LOG.infof("Exported %d records to %s (%d bytes, %.0f records/s, %.1f MB/s)",
+                        result.records(), result.path(), result.bytes(),
+                        result.recordsPerSecond(), result.megabytesPerSecond()))
+                .onFailure().invoke(failure ->
+                        LOG.errorf("Failed to export products to %s: %s", path, failure.getMessage())
+                );
+    }
+
+    // Same encoding without a file: chunks of ~chunk-size for callers that stream the bytes themselves
+    public Multi<Buffer> encode(Multi<?> items, ExportFormat format, ExportCompression compression) {
+        return Multi.createFrom().deferred(() -> {
+            ChunkedExportWriter writer = new ChunkedExportWriter(format, compression,
+                    objectMapper, csvMapper, chunkSize);
+            return items
+                    .onItem().transformToIterable(writer::write)
+                    .onCompletion().continueWith(writer::finish);
+        });
+    }
+
+    private Uni<Void> writeChunks(AsyncFile file, Multi<?> items, ChunkedExportWriter writer) {
+        return items
+                .onItem().transformToIterable(writer::write)
+                .onCompletion().continueWith(writer::finish)
+                // One write at a time: the next rows are only requested once the previous chunk hit the file
+                .onItem().transformToUniAndConcatenate(file::write)
+                .collect().last()
+                .replaceWithVoid();
+    }
+}
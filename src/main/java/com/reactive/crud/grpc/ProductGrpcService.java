@@ -0,0 +1,134 @@
+package com.reactive.crud.grpc;
+
+import com.google.protobuf.Empty;
+import com.reactive.crud.dto.ProductRequest;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.grpc.proto.DeleteProductRequest;
+import com.reactive.crud.grpc.proto.GetProductRequest;
+import com.reactive.crud.grpc.proto.GetProductsRequest;
+import com.reactive.crud.grpc.proto.GetProductsResponse;
+import com.reactive.crud.grpc.proto.ListProductsRequest;
+import com.reactive.crud.grpc.proto.Product;
+import com.reactive.crud.grpc.proto.ProductCatalog;
+import com.reactive.crud.grpc.proto.ProductInput;
+import com.reactive.crud.grpc.proto.UpdateProductRequest;
+import com.reactive.crud.service.ProductService;
+import io.grpc.Status;
+import io.quarkus.grpc.GrpcService;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// gRPC front for ProductService: same cache, side effects and validation as ProductResource,
+// with protobuf on the wire instead of JSON
+@GrpcService
+public class ProductGrpcService implements ProductCatalog {
+
+    private static final Logger LOG = Logger.getLogger(ProductGrpcService.class);
+
+    @Inject
+    ProductService productService;
+
+    @Inject
+    Validator validator;
+
+    @ConfigProperty(name = "product.grpc.max-batch-size", defaultValue = "500")
+    int maxBatchSize;
+
+    // gRPC calls do not pass the HTTP admission controller, so a batch must not take the whole PG pool
+    @ConfigProperty(name = "product.grpc.lookup-concurrency", defaultValue = "8")
+    int lookupConcurrency;
+
+    @Override
+    public Uni<Product> getProduct(GetProductRequest request) {
+        LOG.debugf("gRPC request to get product with id: %d", request.getId());
+        return productService.getProductById(request.getId())
+                .onItem().ifNull().failWith(() -> notFound(request.getId()))
+                .onItem().transform(ProductMessages::toMessage);
+    }
+
+    // Each id goes through the Redis cache first; at most lookup-concurrency lookups run at a time
+    @Override
+    public Uni<GetProductsResponse> getProducts(GetProductsRequest request) {
+        List<Long> ids = request.getIdsList().stream().distinct().toList();
+        LOG.debugf("gRPC request to get %d products", ids.size());
+        if (ids.isEmpty()) {
+            return Uni.createFrom().item(GetProductsResponse.getDefaultInstance());
+        }
+        if (ids.size() > maxBatchSize) {
+            return Uni.createFrom().failure(Status.INVALID_ARGUMENT
+                    .withDescription("At most " + maxBatchSize + " ids per request").asRuntimeException());
+        }
+        return Multi.createFrom().iterable(ids)
+                .onItem().transformToUni(productService::getProductById).merge(lookupConcurrency)
+                .collect().asMap(ProductResponse::id)
+                // merge emits in completion order, answer in request order; unknown ids are skipped
+                .onItem().transform(products -> GetProductsResponse.newBuilder()
+                        .addAllProducts(ids.stream()
+                                .map(products::get)
+                                .filter(Objects::nonNull)
+                                .map(ProductMessages::toMessage)
+                                .toList())
+                        .build());
+    }
+
+    @Override
+    public Multi<Product> listProducts(ListProductsRequest request) {
+        LOG.debug("gRPC request to stream all products");
+        return productService.streamAllProducts()
+                .onItem().transform(ProductMessages::toMessage);
+    }
+
+    @Override
+    public Uni<Product> createProduct(ProductInput input) {
+        return validated(input)
+                .chain(productService::createProduct)
+                .onItem().transform(ProductMessages::toMessage);
+    }
+
+    @Override
+    public Uni<Product> updateProduct(UpdateProductRequest request) {
+        LOG.debugf("gRPC request to update product with id: %d", request.getId());
+        return validated(request.getProduct())
+                .chain(productRequest -> productService.updateProduct(request.getId(), productRequest))
+                .onItem().ifNull().failWith(() -> notFound(request.getId()))
+                .onItem().transform(ProductMessages::toMessage);
+    }
+
+    @Override
+    public Uni<Empty> deleteProduct(DeleteProductRequest request) {
+        LOG.debugf("gRPC request to delete product with id: %d", request.getId());
+        return productService.deleteProduct(request.getId())
+                .chain(deleted -> deleted
+                        ? Uni.createFrom().item(Empty.getDefaultInstance())
+                        : Uni.createFrom().failure(notFound(request.getId())));
+    }
+
+    // Bean Validation on ProductRequest, the checks @Valid runs for the REST endpoint
+    private Uni<ProductRequest> validated(ProductInput input) {
+        return Uni.createFrom().item(() -> {
+            ProductRequest request = ProductMessages.toRequest(input);
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                throw Status.INVALID_ARGUMENT.withDescription(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))).asRuntimeException();
+            }
+            return request;
+        });
+    }
+
+    private static RuntimeException notFound(long id) {
+        return Status.NOT_FOUND.withDescription("Product " + id + " not found").asRuntimeException();
+    }
+}
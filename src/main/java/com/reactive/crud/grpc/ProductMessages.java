@@ -0,0 +1,64 @@
+package com.reactive.crud.grpc;
+
+import com.google.protobuf.Timestamp;
+import com.reactive.crud.dto.ProductRequest;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.grpc.proto.Product;
+import com.reactive.crud.grpc.proto.ProductInput;
+import io.grpc.Status;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Conversions between the protobuf messages and the DTOs ProductService works with
+final class ProductMessages {
+
+    private ProductMessages() {
+    }
+
+    static Product toMessage(ProductResponse product) {
+        Product.Builder message = Product.newBuilder()
+                .setId(product.id())
+                .setName(product.name())
+                .setPrice(product.price().toPlainString());
+        if (product.description() != null) {
+            message.setDescription(product.description());
+        }
+        if (product.ownerId() != null) {
+            message.setOwnerId(product.ownerId());
+        }
+        if (product.createdAt() != null) {
+            message.setCreatedAt(timestamp(product.createdAt()));
+        }
+        if (product.updatedAt() != null) {
+            message.setUpdatedAt(timestamp(product.updatedAt()));
+        }
+        return message.build();
+    }
+
+    static ProductRequest toRequest(ProductInput input) {
+        BigDecimal price;
+        try {
+            price = input.getPrice().isEmpty() ? null : new BigDecimal(input.getPrice());
+        } catch (NumberFormatException e) {
+            throw Status.INVALID_ARGUMENT.withDescription("price is not a decimal: " + input.getPrice()).asRuntimeException();
+        }
+        return new ProductRequest(
+                input.getName(),
+                input.hasDescription() ? input.getDescription() : null,
+                price,
+                input.hasOwnerId() ? input.getOwnerId() : null
+        );
+    }
+
+    // Same zone as the REST Last-Modified header, so both APIs report the same instant
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        Instant instant = dateTime.atZone(ZoneId.systemDefault()).toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+}
@@ -5,6 +5,9 @@ import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Timeout;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 import java.util.List;
@@ -14,9 +17,15 @@ import java.util.List;
 public interface ExternalApiClient {
 
     @GET
+    @Timeout(3000)
+    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 10_000, successThreshold = 2)
+    @Bulkhead(value = 4, waitingTaskQueue = 16)
     Uni<List<ExternalUserDto>> getAllUsers();
 
     @GET
     @Path("/{id}")
+    @Timeout(1000)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5_000, successThreshold = 3)
+    @Bulkhead(value = 32, waitingTaskQueue = 64)
     Uni<ExternalUserDto> getUserById(@PathParam("id") Long id);
 }
@@ -1,43 +1,161 @@
 package com.reactive.crud.http;
 
+import com.reactive.crud.dto.ExternalUserCacheStats;
 import com.reactive.crud.dto.ExternalUserDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 @ApplicationScoped
 public class HttpClientService {
 
     private static final Logger LOG = Logger.getLogger(HttpClientService.class);
+    private static final String ALL_USERS_KEY = "all";
 
     @Inject
     @RestClient
     ExternalApiClient externalApiClient;
 
+    // TTL and size bounds: quarkus.cache.caffeine."external-users".*
+    @Inject
+    @CacheName("external-users")
+    Cache userCache;
+
+    @Inject
+    @CacheName("external-users-all")
+    Cache allUsersCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "external-api.bulk.concurrency", defaultValue = "8")
+    int bulkConcurrency;
+
+    @ConfigProperty(name = "external-api.hedging.enabled", defaultValue = "false")
+    boolean hedgingEnabled;
+
+    @ConfigProperty(name = "external-api.hedging.percentile", defaultValue = "0.95")
+    double hedgingPercentile;
+
+    @ConfigProperty(name = "external-api.hedging.min-delay", defaultValue = "20ms")
+    Duration hedgingMinDelay;
+
+    @ConfigProperty(name = "external-api.hedging.min-samples", defaultValue = "20")
+    int hedgingMinSamples;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final LatencyTracker userLatency = new LatencyTracker(512);
+
+    private Counter hedgesSent;
+    private Counter hedgesWon;
+
+    @PostConstruct
+    void init() {
+        hedgesSent = registry.counter("external.api.hedge.sent");
+        hedgesWon = registry.counter("external.api.hedge.won");
+    }
+
     public Uni<List<ExternalUserDto>> fetchAllUsers() {
         LOG.debug("Fetching all users from external API");
-        return externalApiClient.getAllUsers()
-                .invoke(users -> LOG.infof("Fetched %d users from external API", users.size()))
+        return allUsersCache.getAsync(ALL_USERS_KEY, key -> externalApiClient.getAllUsers()
+                        .invoke(users -> {
+                            LOG.infof("Fetched %d users from external API", users.size());
+                            // Warm the per-id cache from the list response
+                            CaffeineCache byId = userCache.as(CaffeineCache.class);
+                            users.forEach(user -> byId.put(user.id(), CompletableFuture.completedFuture(user)));
+                        }))
                 .onFailure().invoke(failure ->
                         LOG.errorf("Failed to fetch users: %s", failure.getMessage())
                 );
     }
 
     public Uni<ExternalUserDto> fetchUserById(Long userId) {
-        LOG.debugf("Fetching user %d from external API", userId);
-        return externalApiClient.getUserById(userId)
-                .invoke(user -> LOG.infof("Fetched user: %s", user.name()))
-                .onFailure().invoke(failure ->
-                        LOG.errorf("Failed to fetch user %d: %s", userId, failure.getMessage())
-                );
+        requests.incrementAndGet();
+        // getAsync coalesces concurrent loads of the same id into one remote call
+        return userCache.getAsync(userId, this::loadUser);
+    }
+
+    public Uni<Map<Long, ExternalUserDto>> fetchUsersByIds(Collection<Long> userIds) {
+        LOG.debugf("Bulk fetching %d users from external API", userIds.size());
+        return Multi.createFrom().iterable(new LinkedHashSet<>(userIds))
+                .onItem().transformToUni(id -> fetchUserById(id)
+                        .onFailure().recoverWithNull())
+                .merge(bulkConcurrency)
+                // Failed lookups recover with null and are skipped by the merge
+                .collect().asMap(ExternalUserDto::id, user -> user);
     }
 
     public Uni<String> fetchUserEmailById(Long userId) {
         return fetchUserById(userId)
                 .onItem().transform(ExternalUserDto::email);
     }
+
+    public ExternalUserCacheStats cacheStats() {
+        long total = requests.get();
+        long missed = misses.get();
+        long hits = Math.max(total - missed, 0);
+        int size = userCache.as(CaffeineCache.class).keySet().size();
+        return new ExternalUserCacheStats(total, hits, missed, loadFailures.get(), size,
+                total == 0 ? 0.0 : (double) hits / total);
+    }
+
+    private Uni<ExternalUserDto> loadUser(Long userId) {
+        misses.incrementAndGet();
+        LOG.debugf("Fetching user %d from external API", userId);
+        return hedgedGetUser(userId)
+                .invoke(user -> LOG.infof("Fetched user: %s", user.name()))
+                .onFailure().invoke(failure -> {
+                    loadFailures.incrementAndGet();
+                    LOG.errorf("Failed to fetch user %d: %s", userId, failure.getMessage());
+                });
+    }
+
+    // Sends a second request if the first has not answered within the recent p95 latency
+    private Uni<ExternalUserDto> hedgedGetUser(Long userId) {
+        Uni<ExternalUserDto> primary = timedGetUser(userId);
+        if (!hedgingEnabled || userLatency.count() < hedgingMinSamples) {
+            return primary;
+        }
+
+        Duration p95 = userLatency.percentile(hedgingPercentile);
+        Duration delay = p95.compareTo(hedgingMinDelay) > 0 ? p95 : hedgingMinDelay;
+        Uni<ExternalUserDto> hedge = Uni.createFrom().voidItem()
+                .onItem().delayIt().by(delay)
+                .chain(() -> {
+                    hedgesSent.increment();
+                    LOG.debugf("Hedging request for user %d after %s", userId, delay);
+                    return timedGetUser(userId).invoke(() -> hedgesWon.increment());
+                });
+
+        // First response wins, the other request is cancelled
+        return Uni.combine().any().of(primary, hedge);
+    }
+
+    private Uni<ExternalUserDto> timedGetUser(Long userId) {
+        return Uni.createFrom().deferred(() -> {
+            long start = System.nanoTime();
+            return externalApiClient.getUserById(userId)
+                    .invoke(() -> userLatency.record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
 }
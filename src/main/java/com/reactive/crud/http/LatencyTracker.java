@@ -0,0 +1,39 @@
+package com.reactive.crud.http;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// Sliding window of the most recent call latencies, used to pick the hedging delay
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    public synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    public Duration percentile(double percentile) {
+        long[] snapshot;
+        synchronized (this) {
+            if (count == 0) {
+                return Duration.ZERO;
+            }
+            snapshot = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(snapshot);
+        int index = (int) Math.ceil(percentile * snapshot.length) - 1;
+        return Duration.ofNanos(snapshot[Math.max(0, Math.min(index, snapshot.length - 1))]);
+    }
+}
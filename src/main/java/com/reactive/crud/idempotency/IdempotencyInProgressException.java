@@ -0,0 +1,9 @@
+package com.reactive.crud.idempotency;
+
+// The first request with this Idempotency-Key did not finish within the wait timeout
+public class IdempotencyInProgressException extends RuntimeException {
+
+    public IdempotencyInProgressException(String key) {
+        super("A request with Idempotency-Key " + key + " is still in progress");
+    }
+}
@@ -0,0 +1,9 @@
+package com.reactive.crud.idempotency;
+
+// The Idempotency-Key was already used for a request with a different body
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String key) {
+        super("Idempotency-Key " + key + " was already used with a different request");
+    }
+}
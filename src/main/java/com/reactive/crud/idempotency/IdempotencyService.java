@@ -0,0 +1,146 @@
+package com.reactive.crud.idempotency;
+
+import com.reactive.crud.dto.IdempotentResponse;
+import com.reactive.crud.dto.ProductRequest;
+import com.reactive.crud.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.quarkus.redis.datasource.value.ReactiveValueCommands;
+import io.quarkus.redis.datasource.value.SetArgs;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Runs a create at most once per Idempotency-Key: the first request claims the key in Redis and stores
+// its response, duplicates wait for that response and replays are answered from Redis alone
+@ApplicationScoped
+public class IdempotencyService {
+
+    private static final Logger LOG = Logger.getLogger(IdempotencyService.class);
+    private static final String KEY_PREFIX = "idempotency:";
+
+    public record Outcome(ProductResponse product, boolean replayed) {
+    }
+
+    private record Attempt(IdempotentResponse response, boolean executed) {
+    }
+
+    @Inject
+    ReactiveRedisDataSource redis;
+
+    @Inject
+    MeterRegistry registry;
+
+    // How long a stored response answers replays
+    @ConfigProperty(name = "product.idempotency.ttl", defaultValue = "24h")
+    Duration ttl;
+
+    // Lifetime of the in-progress placeholder, so a key held by a crashed instance becomes usable again
+    @ConfigProperty(name = "product.idempotency.in-progress-ttl", defaultValue = "30s")
+    Duration inProgressTtl;
+
+    @ConfigProperty(name = "product.idempotency.wait-timeout", defaultValue = "10s")
+    Duration waitTimeout;
+
+    @ConfigProperty(name = "product.idempotency.poll-interval", defaultValue = "50ms")
+    Duration pollInterval;
+
+    private final Map<String, Uni<Attempt>> inFlight = new ConcurrentHashMap<>();
+    private ReactiveValueCommands<String, IdempotentResponse> entries;
+    private ReactiveKeyCommands<String> keys;
+
+    @PostConstruct
+    void init() {
+        entries = redis.value(IdempotentResponse.class);
+        keys = redis.key();
+    }
+
+    public Uni<Outcome> execute(String key, ProductRequest request, Supplier<Uni<ProductResponse>> action) {
+        String fingerprint = fingerprint(request);
+        return Uni.createFrom().deferred(() -> {
+            AtomicReference<Uni<Attempt>> self = new AtomicReference<>();
+            Uni<Attempt> created = claim(key, fingerprint, action, System.nanoTime() + waitTimeout.toNanos())
+                    .onTermination().invoke(() -> inFlight.remove(key, self.get()))
+                    .memoize().indefinitely();
+            self.set(created);
+
+            Uni<Attempt> running = inFlight.putIfAbsent(key, created);
+            if (running == null) {
+                return created.map(attempt -> outcome(key, fingerprint, attempt.response(), !attempt.executed()));
+            }
+            // Duplicate on this instance: share the in-flight result instead of polling Redis
+            return running.map(attempt -> outcome(key, fingerprint, attempt.response(), true));
+        });
+    }
+
+    private Uni<Attempt> claim(String key, String fingerprint, Supplier<Uni<ProductResponse>> action, long deadline) {
+        String redisKey = KEY_PREFIX + key;
+        // SET NX GET either claims the key or returns what an earlier request left in it
+        return entries.setGet(redisKey, IdempotentResponse.inProgress(fingerprint), new SetArgs().nx().px(inProgressTtl))
+                .chain(existing -> {
+                    if (existing == null) {
+                        return run(redisKey, fingerprint, action);
+                    }
+                    if (existing.completed() || !existing.fingerprint().equals(fingerprint)) {
+                        return Uni.createFrom().item(new Attempt(existing, false));
+                    }
+                    if (System.nanoTime() >= deadline) {
+                        registry.counter("idempotency.requests", "outcome", "in-progress").increment();
+                        return Uni.createFrom().failure(new IdempotencyInProgressException(key));
+                    }
+                    // Running on another instance: retry until it stores its response or releases the key
+                    return Uni.createFrom().voidItem()
+                            .onItem().delayIt().by(pollInterval)
+                            .chain(() -> claim(key, fingerprint, action, deadline));
+                });
+    }
+
+    private Uni<Attempt> run(String redisKey, String fingerprint, Supplier<Uni<ProductResponse>> action) {
+        return action.get()
+                // Release the key so a retry can run the request again
+                .onFailure().call(failure -> keys.del(redisKey).onFailure().recoverWithNull())
+                // The product exists by now; failing the request would only invite a duplicate retry
+                .call(product -> entries.set(redisKey, IdempotentResponse.completed(fingerprint, product), new SetArgs().px(ttl))
+                        .onFailure().invoke(failure -> LOG.warnf("Could not store response for %s: %s", redisKey, failure.getMessage()))
+                        .onFailure().recoverWithNull())
+                .map(product -> new Attempt(IdempotentResponse.completed(fingerprint, product), true));
+    }
+
+    private Outcome outcome(String key, String fingerprint, IdempotentResponse response, boolean replayed) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            registry.counter("idempotency.requests", "outcome", "mismatch").increment();
+            throw new IdempotencyKeyReuseException(key);
+        }
+        registry.counter("idempotency.requests", "outcome", replayed ? "replayed" : "executed").increment();
+        if (replayed) {
+            LOG.debugf("Replaying stored response for Idempotency-Key %s", key);
+        }
+        return new Outcome(response.product(), replayed);
+    }
+
+    // Same body, same fingerprint: a retry. Anything else reusing the key is a client error
+    static String fingerprint(ProductRequest request) {
+        String price = request.price() == null ? null : request.price().stripTrailingZeros().toPlainString();
+        String canonical = request.name() + '\n' + request.description() + '\n' + price + '\n' + request.ownerId();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.reactive.crud.mail;
+
+import com.reactive.crud.dto.ProductEventDto;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class MailDigestAggregator {
+
+    private static final Logger LOG = Logger.getLogger(MailDigestAggregator.class);
+
+    @Inject
+    MailService mailService;
+
+    @Inject
+    MailDispatcher mailDispatcher;
+
+    @Inject
+    Vertx vertx;
+
+    @ConfigProperty(name = "product.mail.digest.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "product.mail.digest.window", defaultValue = "60s")
+    Duration window;
+
+    @ConfigProperty(name = "product.mail.digest.max-entries", defaultValue = "500")
+    int maxEntries;
+
+    // Guarded by "this"
+    private final Map<String, List<Entry>> pendingByRecipient = new HashMap<>();
+    private long timerId = -1;
+
+    public record Entry(ProductEventDto.EventType eventType, Long productId, String productName,
+                        LocalDateTime occurredAt) {
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            timerId = vertx.setPeriodic(window.toMillis(), id -> flushAll());
+            LOG.infof("Mail digest enabled (window %s, max %d entries)", window, maxEntries);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(ProductEventDto.EventType eventType, Long productId, String productName, String recipientEmail) {
+        List<Entry> full = null;
+        synchronized (this) {
+            List<Entry> entries = pendingByRecipient.computeIfAbsent(recipientEmail, r -> new ArrayList<>());
+            entries.add(new Entry(eventType, productId, productName, LocalDateTime.now()));
+            if (entries.size() >= maxEntries) {
+                full = pendingByRecipient.remove(recipientEmail);
+            }
+        }
+        if (full != null) {
+            send(recipientEmail, full);
+        }
+    }
+
+    public void flushAll() {
+        Map<String, List<Entry>> batches;
+        synchronized (this) {
+            if (pendingByRecipient.isEmpty()) {
+                return;
+            }
+            batches = new HashMap<>(pendingByRecipient);
+            pendingByRecipient.clear();
+        }
+        batches.forEach(this::send);
+    }
+
+    private void send(String recipientEmail, List<Entry> entries) {
+        LOG.debugf("Flushing digest with %d entries to %s", entries.size(), recipientEmail);
+        mailDispatcher.dispatch(null, mailService.productDigest(recipientEmail, entries));
+    }
+
+    // Runs before MailDispatcher drains its queue on shutdown
+    void onStop(@Observes @Priority(Interceptor.Priority.APPLICATION) ShutdownEvent event) {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+        }
+        flushAll();
+    }
+}
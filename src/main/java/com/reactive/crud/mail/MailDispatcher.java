@@ -0,0 +1,211 @@
+package com.reactive.crud.mail;
+
+import com.reactive.crud.dto.ProductEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.mailer.Mail;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+@ApplicationScoped
+public class MailDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(MailDispatcher.class);
+
+    public enum OverflowPolicy {
+        DROP_NEWEST, DROP_OLDEST, COALESCE
+    }
+
+    @Inject
+    MailService mailService;
+
+    @Inject
+    MailDigestAggregator digestAggregator;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "product.mail.dispatcher.capacity", defaultValue = "1000")
+    int capacity;
+
+    @ConfigProperty(name = "product.mail.dispatcher.concurrency", defaultValue = "4")
+    int concurrency;
+
+    @ConfigProperty(name = "product.mail.dispatcher.overflow-policy", defaultValue = "COALESCE")
+    OverflowPolicy overflowPolicy;
+
+    @ConfigProperty(name = "product.mail.dispatcher.shutdown-timeout", defaultValue = "10s")
+    Duration shutdownTimeout;
+
+    // Guarded by "this"; the pending map indexes queued (not yet sent) mails by coalesce key
+    private final Deque<PendingMail> queue = new ArrayDeque<>();
+    private final Map<String, PendingMail> pendingByKey = new HashMap<>();
+    private int inFlight;
+    // Set while a thread runs the drain loop; others only update the counters and leave the sending to it
+    private boolean draining;
+
+    private Timer sendTimer;
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter coalescedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void init() {
+        sendTimer = Timer.builder("product.mail.send")
+                .description("SMTP send latency of dispatched mails")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        sentCounter = registry.counter("product.mail.sent");
+        failedCounter = registry.counter("product.mail.failed");
+        coalescedCounter = registry.counter("product.mail.coalesced");
+        droppedCounter = registry.counter("product.mail.dropped", "policy", overflowPolicy.name());
+        Gauge.builder("product.mail.queue.depth", this, MailDispatcher::queueDepth).register(registry);
+        Gauge.builder("product.mail.in.flight", this, MailDispatcher::inFlight).register(registry);
+    }
+
+    public boolean dispatchProductNotification(ProductEventDto.EventType eventType, Long productId,
+                                               String productName, String recipientEmail) {
+        if (digestAggregator.isEnabled()) {
+            digestAggregator.add(eventType, productId, productName, recipientEmail);
+            return true;
+        }
+        String key = recipientEmail + ":" + eventType + ":" + productId;
+        return dispatch(key, mailService.productNotification(eventType, productId, productName, recipientEmail));
+    }
+
+    public boolean dispatch(String coalesceKey, Mail mail) {
+        synchronized (this) {
+            PendingMail pending = coalesceKey != null ? pendingByKey.get(coalesceKey) : null;
+            if (pending != null && overflowPolicy == OverflowPolicy.COALESCE) {
+                pending.mail = mail;
+                coalescedCounter.increment();
+                return true;
+            }
+            if (queue.size() >= capacity) {
+                if (overflowPolicy != OverflowPolicy.DROP_OLDEST) {
+                    droppedCounter.increment();
+                    LOG.warnf("Mail queue full (%d), dropping mail: %s", capacity, mail.getSubject());
+                    return false;
+                }
+                PendingMail evicted = queue.pollFirst();
+                pendingByKey.remove(evicted.key, evicted);
+                droppedCounter.increment();
+                LOG.warnf("Mail queue full (%d), dropping oldest mail: %s", capacity, evicted.mail.getSubject());
+            }
+            PendingMail queued = new PendingMail(coalesceKey, mail);
+            queue.addLast(queued);
+            if (coalesceKey != null) {
+                pendingByKey.put(coalesceKey, queued);
+            }
+        }
+        drain();
+        return true;
+    }
+
+    public synchronized int queueDepth() {
+        return queue.size();
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    // A send that completes synchronously calls release() from inside send(); the draining flag turns that
+    // into another turn of this loop instead of a nested drain, so the stack stays flat however long the queue
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            PendingMail next;
+            synchronized (this) {
+                if (inFlight >= concurrency || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                next = queue.pollFirst();
+                if (next.key != null) {
+                    pendingByKey.remove(next.key, next);
+                }
+                inFlight++;
+            }
+            send(next.mail);
+        }
+    }
+
+    private void send(Mail mail) {
+        Timer.Sample sample = Timer.start(registry);
+        mailService.send(mail)
+                .subscribe().with(
+                        ignored -> {
+                            sample.stop(sendTimer);
+                            sentCounter.increment();
+                            release();
+                        },
+                        failure -> {
+                            sample.stop(sendTimer);
+                            failedCounter.increment();
+                            release();
+                        }
+                );
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+            if (inFlight == 0 && queue.isEmpty()) {
+                // Wakes onStop once everything accepted has been sent
+                notifyAll();
+            }
+        }
+        drain();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        synchronized (this) {
+            while (!queue.isEmpty() || inFlight > 0) {
+                long remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+                if (remainingMillis <= 0) {
+                    break;
+                }
+                try {
+                    wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (!queue.isEmpty()) {
+                LOG.warnf("Shutting down with %d undelivered mails", queue.size());
+            }
+        }
+    }
+
+    private static final class PendingMail {
+        private final String key;
+        private Mail mail;
+
+        private PendingMail(String key, Mail mail) {
+            this.key = key;
+            this.mail = mail;
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.reactive.crud.mail;
 
+import com.reactive.crud.dto.ProductEventDto;
 import io.quarkus.mailer.Mail;
 import io.quarkus.mailer.reactive.ReactiveMailer;
+import io.quarkus.qute.CheckedTemplate;
+import io.quarkus.qute.TemplateInstance;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
+import java.util.List;
+
 @ApplicationScoped
 public class MailService {
 
@@ -15,59 +20,72 @@ public class MailService {
     @Inject
     ReactiveMailer mailer;
 
-    public Uni<Void> sendProductCreatedNotification(Long productId, String productName, String recipientEmail) {
-        String subject = "New Product Created";
-        String body = String.format(
-                "Hello,\n\n" +
-                "A new product has been created:\n\n" +
-                "Product ID: %d\n" +
-                "Product Name: %s\n\n" +
-                "Best regards,\n" +
-                "Reactive CRUD App",
-                productId, productName
-        );
+    // Type-checked and parsed once at build time (templates/MailService/*.txt)
+    @CheckedTemplate
+    static class Templates {
+        static native TemplateInstance productNotification(String action, Long productId, String productName);
 
-        return sendMail(recipientEmail, subject, body);
+        static native TemplateInstance productDigest(List<MailDigestAggregator.Entry> entries,
+                                                     long created, long updated, long deleted);
     }
 
-    public Uni<Void> sendProductUpdatedNotification(Long productId, String productName, String recipientEmail) {
-        String subject = "Product Updated";
-        String body = String.format(
-                "Hello,\n\n" +
-                "A product has been updated:\n\n" +
-                "Product ID: %d\n" +
-                "Product Name: %s\n\n" +
-                "Best regards,\n" +
-                "Reactive CRUD App",
-                productId, productName
-        );
+    public Uni<Void> sendProductCreatedNotification(Long productId, String productName, String recipientEmail) {
+        return send(productNotification(ProductEventDto.EventType.CREATED, productId, productName, recipientEmail));
+    }
 
-        return sendMail(recipientEmail, subject, body);
+    public Uni<Void> sendProductUpdatedNotification(Long productId, String productName, String recipientEmail) {
+        return send(productNotification(ProductEventDto.EventType.UPDATED, productId, productName, recipientEmail));
     }
 
     public Uni<Void> sendProductDeletedNotification(Long productId, String productName, String recipientEmail) {
-        String subject = "Product Deleted";
-        String body = String.format(
-                "Hello,\n\n" +
-                "A product has been deleted:\n\n" +
-                "Product ID: %d\n" +
-                "Product Name: %s\n\n" +
-                "Best regards,\n" +
-                "Reactive CRUD App",
-                productId, productName
-        );
+        return send(productNotification(ProductEventDto.EventType.DELETED, productId, productName, recipientEmail));
+    }
 
-        return sendMail(recipientEmail, subject, body);
+    public Mail productNotification(ProductEventDto.EventType eventType, Long productId, String productName,
+                                    String recipientEmail) {
+        String subject;
+        String action;
+        switch (eventType) {
+            case CREATED -> {
+                subject = "New Product Created";
+                action = "A new product has been created";
+            }
+            case UPDATED -> {
+                subject = "Product Updated";
+                action = "A product has been updated";
+            }
+            default -> {
+                subject = "Product Deleted";
+                action = "A product has been deleted";
+            }
+        }
+        String body = Templates.productNotification(action, productId, productName).render();
+        return Mail.withText(recipientEmail, subject, body);
     }
 
-    private Uni<Void> sendMail(String to, String subject, String body) {
-        return mailer.send(
-                Mail.withText(to, subject, body)
-        )
-        .invoke(() -> LOG.infof("Email sent to %s with subject: %s", to, subject))
-        .onFailure().invoke(failure ->
-                LOG.errorf("Failed to send email to %s: %s", to, failure.getMessage())
-        );
+    public Mail productDigest(String recipientEmail, List<MailDigestAggregator.Entry> entries) {
+        long created = 0;
+        long updated = 0;
+        long deleted = 0;
+        for (MailDigestAggregator.Entry entry : entries) {
+            switch (entry.eventType()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case DELETED -> deleted++;
+            }
+        }
+        String subject = "Product Changes Digest (" + entries.size() + ")";
+        String body = Templates.productDigest(entries, created, updated, deleted).render();
+        return Mail.withText(recipientEmail, subject, body);
+    }
+
+    public Uni<Void> send(Mail mail) {
+        String to = String.join(",", mail.getTo());
+        return mailer.send(mail)
+                .invoke(() -> LOG.infof("Email sent to %s with subject: %s", to, mail.getSubject()))
+                .onFailure().invoke(failure ->
+                        LOG.errorf("Failed to send email to %s: %s", to, failure.getMessage())
+                );
     }
 
     public Uni<Void> sendHtmlMail(String to, String subject, String htmlBody) {
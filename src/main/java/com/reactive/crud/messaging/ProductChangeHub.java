@@ -0,0 +1,116 @@
+package com.reactive.crud.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactive.crud.dto.ProductEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans product events out to live subscribers; each subscriber gets its own overflow handling
+@ApplicationScoped
+public class ProductChangeHub {
+
+    private static final Logger LOG = Logger.getLogger(ProductChangeHub.class);
+
+    public enum OverflowPolicy {
+        // Events arriving while the client is still writing are discarded
+        DROP,
+        // Only the most recent undelivered event is kept
+        LATEST,
+        // Up to buffer-size events are queued; a client that falls further behind is disconnected
+        BUFFER
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "product.changes.buffer-size", defaultValue = "256")
+    int bufferSize;
+
+    @ConfigProperty(name = "product.changes.overflow-policy", defaultValue = "LATEST")
+    OverflowPolicy defaultPolicy;
+
+    private final BroadcastProcessor<ProductEventDto> processor = BroadcastProcessor.create();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Map<OverflowPolicy, Counter> overflowCounters = new EnumMap<>(OverflowPolicy.class);
+
+    private Counter publishedCounter;
+    private Counter disconnectedCounter;
+
+    @PostConstruct
+    void init() {
+        publishedCounter = registry.counter("product.changes.published");
+        disconnectedCounter = registry.counter("product.changes.disconnected");
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            // Events that reached a subscriber without demand; with LATEST the last of them is still delivered
+            overflowCounters.put(policy, registry.counter("product.changes.overflow", "policy", policy.name()));
+        }
+        Gauge.builder("product.changes.subscribers", subscribers, AtomicInteger::get).register(registry);
+    }
+
+    // Own channel with a per-instance consumer group: every instance receives every partition, so its SSE
+    // subscribers see all changes and not only those of the partitions a shared group would assign it
+    @Incoming("product-changes")
+    public Uni<Void> onProductEvent(String eventJson) {
+        return Uni.createFrom().item(eventJson)
+                .onItem().transform(json -> {
+                    try {
+                        return objectMapper.readValue(json, ProductEventDto.class);
+                    } catch (Exception e) {
+                        LOG.errorf("Failed to parse change event: %s", e.getMessage());
+                        return null;
+                    }
+                })
+                .onItem().ifNotNull().invoke(this::publish)
+                .replaceWithVoid();
+    }
+
+    // Called from the single Kafka consumer thread, so emissions are already serialized
+    public void publish(ProductEventDto event) {
+        publishedCounter.increment();
+        processor.onNext(event);
+    }
+
+    public Multi<ProductEventDto> subscribe() {
+        return subscribe(defaultPolicy);
+    }
+
+    public Multi<ProductEventDto> subscribe(OverflowPolicy policy) {
+        Counter overflow = overflowCounters.get(policy);
+        Multi<ProductEventDto> events = switch (policy) {
+            case DROP -> processor.onOverflow().invoke(event -> overflow.increment()).drop();
+            case LATEST -> processor.onOverflow().invoke(event -> overflow.increment()).dropPreviousItems();
+            case BUFFER -> processor.onOverflow().buffer(bufferSize)
+                    .onFailure(BackPressureFailure.class).recoverWithMulti(failure -> {
+                        disconnectedCounter.increment();
+                        LOG.warnf("Change feed subscriber fell more than %d events behind, disconnecting", bufferSize);
+                        return Multi.createFrom().empty();
+                    });
+        };
+        return events
+                .onSubscription().invoke(() -> LOG.debugf("Change feed subscriber joined (%s), %d active",
+                        policy, subscribers.incrementAndGet()))
+                .onTermination().invoke(() -> subscribers.decrementAndGet());
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+}
@@ -3,8 +3,10 @@ package com.reactive.crud.messaging;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reactive.crud.dto.ProductEventDto;
+import com.reactive.crud.dto.ProductResponse;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.MutinyEmitter;
+import io.smallrye.reactive.messaging.kafka.Record;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.reactive.messaging.Channel;
@@ -22,6 +24,11 @@ public class ProductEventProducer {
     @Channel("product-events")
     MutinyEmitter<String> eventEmitter;
 
+    // Log-compacted topic: latest full product keyed by id, null value (tombstone) on delete
+    @Inject
+    @Channel("product-snapshots")
+    MutinyEmitter<Record<Long, String>> snapshotEmitter;
+
     @Inject
     ObjectMapper objectMapper;
 
@@ -37,6 +44,28 @@ public class ProductEventProducer {
         return sendEvent(ProductEventDto.EventType.DELETED.name(), productId, productName);
     }
 
+    public Uni<Void> publishSnapshot(ProductResponse product) {
+        try {
+            String snapshotJson = objectMapper.writeValueAsString(product);
+            return snapshotEmitter.send(Record.of(product.id(), snapshotJson))
+                    .invoke(() -> LOG.debugf("Published snapshot for product %d", product.id()))
+                    .onFailure().invoke(failure ->
+                            LOG.errorf("Failed to publish snapshot for product %d: %s", product.id(), failure.getMessage())
+                    );
+        } catch (JsonProcessingException e) {
+            LOG.errorf("Failed to serialize snapshot: %s", e.getMessage());
+            return Uni.createFrom().failure(e);
+        }
+    }
+
+    public Uni<Void> publishTombstone(Long productId) {
+        return snapshotEmitter.send(Record.of(productId, (String) null))
+                .invoke(() -> LOG.debugf("Published tombstone for product %d", productId))
+                .onFailure().invoke(failure ->
+                        LOG.errorf("Failed to publish tombstone for product %d: %s", productId, failure.getMessage())
+                );
+    }
+
     private Uni<Void> sendEvent(String eventType, Long productId, String productName) {
         ProductEventDto event = new ProductEventDto(
                 eventType,
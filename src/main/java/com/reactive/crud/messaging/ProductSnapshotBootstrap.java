@@ -0,0 +1,203 @@
+package com.reactive.crud.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactive.crud.cache.ProductCacheService;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.repository.ProductRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.LongDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+@ApplicationScoped
+public class ProductSnapshotBootstrap {
+
+    private static final Logger LOG = Logger.getLogger(ProductSnapshotBootstrap.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ProductCacheService cacheService;
+
+    @Inject
+    ProductRepository productRepository;
+
+    @ConfigProperty(name = "kafka.bootstrap.servers", defaultValue = "localhost:9092")
+    String bootstrapServers;
+
+    @ConfigProperty(name = "product.snapshot.topic", defaultValue = "product-snapshots")
+    String topic;
+
+    @ConfigProperty(name = "product.snapshot.bootstrap.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "product.snapshot.bootstrap.compare-with-db", defaultValue = "false")
+    boolean compareWithDb;
+
+    @ConfigProperty(name = "product.snapshot.bootstrap.timeout", defaultValue = "30s")
+    Duration timeout;
+
+    @ConfigProperty(name = "product.snapshot.bootstrap.seed-concurrency", defaultValue = "16")
+    int seedConcurrency;
+
+    private volatile LoadReport lastReport;
+
+    public record LoadReport(String source, long records, long bytes, long durationMs) {
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Kafka consumer is blocking - keep it off the startup thread and the event loop
+        loadSnapshot()
+                .chain(snapshot -> seedCache(snapshot.values()))
+                .chain(() -> compareWithDb ? measureDbScan() : Uni.createFrom().voidItem())
+                .subscribe().with(
+                        ignored -> LOG.info("Product snapshot bootstrap finished"),
+                        failure -> LOG.errorf("Product snapshot bootstrap failed: %s", failure.getMessage())
+                );
+    }
+
+    public LoadReport lastReport() {
+        return lastReport;
+    }
+
+    public Uni<Map<Long, ProductResponse>> loadSnapshot() {
+        return Uni.createFrom().item(this::readCompactedTopic)
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private Map<Long, ProductResponse> readCompactedTopic() {
+        long start = System.nanoTime();
+        long bytes = 0;
+        long records = 0;
+        Map<Long, ProductResponse> snapshot = new LinkedHashMap<>();
+
+        try (KafkaConsumer<Long, String> consumer = new KafkaConsumer<>(consumerProperties())) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic, timeout);
+            if (partitions == null || partitions.isEmpty()) {
+                LOG.warnf("Snapshot topic %s has no partitions, skipping bootstrap", topic);
+                return snapshot;
+            }
+
+            List<TopicPartition> assignment = partitions.stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(assignment);
+            consumer.seekToBeginning(assignment);
+            Map<TopicPartition, Long> endOffsets = new HashMap<>(consumer.endOffsets(assignment, timeout));
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (!caughtUp(consumer, endOffsets)) {
+                if (System.nanoTime() > deadline) {
+                    LOG.warnf("Snapshot bootstrap timed out after %s, continuing with %d products",
+                            timeout, snapshot.size());
+                    break;
+                }
+                for (ConsumerRecord<Long, String> record : consumer.poll(Duration.ofMillis(500))) {
+                    records++;
+                    bytes += Math.max(record.serializedKeySize(), 0) + Math.max(record.serializedValueSize(), 0);
+                    ProductResponse product = record.value() != null ? toProduct(record.value()) : null;
+                    if (product == null) {
+                        snapshot.remove(record.key());
+                    } else {
+                        snapshot.put(record.key(), product);
+                    }
+                }
+            }
+        }
+
+        long durationMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        lastReport = new LoadReport("kafka:" + topic, snapshot.size(), bytes, durationMs);
+        LOG.infof("Loaded %d products from snapshot topic %s (%d records, %d bytes) in %d ms",
+                snapshot.size(), topic, records, bytes, durationMs);
+        return snapshot;
+    }
+
+    private boolean caughtUp(KafkaConsumer<Long, String> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+    }
+
+    // The snapshot can lag the database (detached publishes, imports publish none), so it never overwrites
+    // what other instances keep current in the shared cache and never creates shadow copies
+    Uni<Void> seedCache(Iterable<ProductResponse> products) {
+        return Multi.createFrom().iterable(products)
+                .onItem().transformToUni(product -> cacheService.setIfAbsent(product.id(), product)
+                        .onFailure().recoverWithNull())
+                .merge(seedConcurrency)
+                .collect().with(Collectors.counting())
+                .invoke(count -> LOG.infof("Seeded cache with %d products from snapshot", count))
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> measureDbScan() {
+        long start = System.nanoTime();
+        return productRepository.findAll()
+                .onItem().transform(ProductResponse::from)
+                .onItem().transform(this::encodedSize)
+                .collect().in(() -> new long[2], (acc, size) -> {
+                    acc[0]++;
+                    acc[1] += size;
+                })
+                .invoke(acc -> {
+                    long durationMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    LoadReport snapshot = lastReport;
+                    LOG.infof("DB scan: %d products (%d JSON bytes) in %d ms vs snapshot: %d products (%d bytes) in %d ms",
+                            acc[0], acc[1], durationMs,
+                            snapshot != null ? snapshot.records() : 0,
+                            snapshot != null ? snapshot.bytes() : 0,
+                            snapshot != null ? snapshot.durationMs() : 0);
+                })
+                .replaceWithVoid();
+    }
+
+    private ProductResponse toProduct(String json) {
+        try {
+            return objectMapper.readValue(json, ProductResponse.class);
+        } catch (Exception e) {
+            LOG.errorf("Failed to parse product snapshot: %s", e.getMessage());
+            return null;
+        }
+    }
+
+    private long encodedSize(ProductResponse product) {
+        try {
+            return objectMapper.writeValueAsBytes(product).length;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private Properties consumerProperties() {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "5000");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, LongDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        return props;
+    }
+}
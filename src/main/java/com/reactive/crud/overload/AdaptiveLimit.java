@@ -0,0 +1,43 @@
+package com.reactive.crud.overload;
+
+// AIMD concurrency limit: grows by ~1 per limit's worth of good samples, shrinks multiplicatively on overload
+final class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long decreaseIntervalNanos;
+
+    // Guarded by "this"
+    private double limit;
+    private long lastDecreaseNanos;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long decreaseIntervalNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.decreaseIntervalNanos = decreaseIntervalNanos;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.lastDecreaseNanos = System.nanoTime() - decreaseIntervalNanos;
+    }
+
+    synchronized int current() {
+        return (int) limit;
+    }
+
+    // Only grow while the limit is actually being used, otherwise an idle service would drift to maxLimit
+    synchronized void onSuccess(int inFlight) {
+        if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    // One decrease per interval: a burst of slow responses is one congestion signal, not hundreds
+    synchronized void onOverload(long nowNanos) {
+        if (nowNanos - lastDecreaseNanos < decreaseIntervalNanos) {
+            return;
+        }
+        lastDecreaseNanos = nowNanos;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
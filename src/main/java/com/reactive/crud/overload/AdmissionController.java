@@ -0,0 +1,125 @@
+package com.reactive.crud.overload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps in-flight requests with an adaptive limit so excess load is rejected up front instead of
+// queueing on the PgPool/Redis connections until everything times out
+@ApplicationScoped
+public class AdmissionController {
+
+    private static final Logger LOG = Logger.getLogger(AdmissionController.class);
+
+    public enum Priority {
+        // Product reads and writes: may use the whole limit
+        HIGH,
+        // Exports, imports, streamed listings, enrichment, external calls: only a share of it,
+        // and nothing while the event loop lags
+        LOW
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    EventLoopLagProbe lagProbe;
+
+    @ConfigProperty(name = "product.admission.initial-limit", defaultValue = "40")
+    int initialLimit;
+
+    @ConfigProperty(name = "product.admission.min-limit", defaultValue = "8")
+    int minLimit;
+
+    @ConfigProperty(name = "product.admission.max-limit", defaultValue = "200")
+    int maxLimit;
+
+    // Responses slower than this count as congestion (pool wait shows up here first)
+    @ConfigProperty(name = "product.admission.latency-target", defaultValue = "250ms")
+    Duration latencyTarget;
+
+    @ConfigProperty(name = "product.admission.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @ConfigProperty(name = "product.admission.low-priority-share", defaultValue = "0.5")
+    double lowPriorityShare;
+
+    @ConfigProperty(name = "product.admission.event-loop-lag-threshold", defaultValue = "100ms")
+    Duration lagThreshold;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, Counter> rejectedCounters = new EnumMap<>(Priority.class);
+    private AdaptiveLimit limit;
+
+    @PostConstruct
+    void init() {
+        // Never back off faster than one latency target, so each decrease can take effect before the next
+        limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyTarget.toNanos());
+        for (Priority priority : Priority.values()) {
+            rejectedCounters.put(priority, registry.counter("http.admission.rejected", "priority", priority.name()));
+        }
+        Gauge.builder("http.admission.limit", this, AdmissionController::limit).register(registry);
+        Gauge.builder("http.admission.in.flight", inFlight, AtomicInteger::get).register(registry);
+        Gauge.builder("http.admission.event.loop.lag", lagProbe, probe -> probe.lagNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        boolean lagging = isEventLoopLagging();
+        if (lagging) {
+            limit.onOverload(System.nanoTime());
+        }
+        int allowed = priority == Priority.HIGH
+                ? limit.current()
+                : lagging ? 0 : Math.max(1, (int) (limit.current() * lowPriorityShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejectedCounters.get(priority).increment();
+                LOG.debugf("Rejecting %s priority request: %d in flight, limit %d, lagging %b",
+                        priority, current, allowed, lagging);
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // failed: the response itself signals saturation (e.g. a pool or query timeout)
+    public void release(Priority priority, long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        // Bulk requests are slow by nature; only regular requests say anything about congestion
+        if (priority == Priority.LOW) {
+            return;
+        }
+        if (failed || latencyNanos > latencyTarget.toNanos() || isEventLoopLagging()) {
+            limit.onOverload(System.nanoTime());
+        } else {
+            limit.onSuccess(current);
+        }
+    }
+
+    public int limit() {
+        return limit.current();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private boolean isEventLoopLagging() {
+        return lagProbe.lagNanos() > lagThreshold.toNanos();
+    }
+}
@@ -0,0 +1,71 @@
+package com.reactive.crud.overload;
+
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+// Runs on the event loop before Quarkus REST, so rejected requests never touch a pool
+@ApplicationScoped
+public class AdmissionRouteHandler {
+
+    private static final String API_PREFIX = "/api/";
+
+    @Inject
+    AdmissionController admissionController;
+
+    @ConfigProperty(name = "product.admission.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "product.admission.retry-after-seconds", defaultValue = "1")
+    int retryAfterSeconds;
+
+    void register(@Observes Router router) {
+        if (enabled) {
+            router.route(API_PREFIX + "*").order(-100).handler(this::handle);
+        }
+    }
+
+    void handle(RoutingContext context) {
+        String path = context.normalizedPath();
+        // Long-lived subscriptions would hold a slot for as long as the client stays connected
+        if (path.endsWith("/changes")) {
+            context.next();
+            return;
+        }
+        AdmissionController.Priority priority = priorityOf(path, context.request().getHeader(HttpHeaders.ACCEPT));
+        if (!admissionController.tryAcquire(priority)) {
+            context.response()
+                    .setStatusCode(503)
+                    .putHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .putHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+                    .end("Server overloaded, retry later");
+            return;
+        }
+        long start = System.nanoTime();
+        context.addEndHandler(result -> admissionController.release(priority, System.nanoTime() - start,
+                overloadSignal(context.response().getStatusCode())));
+        context.next();
+    }
+
+    // 503s come from shedding layers (ours, or an open circuit to the external API), not from our pools.
+    // 504s are request deadlines running out, which any client can cause with a tiny X-Request-Timeout;
+    // counting them would let one client push the shared limit down for everyone. Slow responses still
+    // reach the limit through their latency
+    static boolean overloadSignal(int status) {
+        return status >= 500 && status != 503 && status != 504;
+    }
+
+    static AdmissionController.Priority priorityOf(String path, String accept) {
+        boolean streaming = accept != null
+                && (accept.contains("application/x-ndjson") || accept.contains("text/event-stream"));
+        if (streaming || path.contains("/export") || path.contains("/import")
+                || path.endsWith("/enriched") || path.contains("/external/")) {
+            return AdmissionController.Priority.LOW;
+        }
+        return AdmissionController.Priority.HIGH;
+    }
+}
@@ -0,0 +1,46 @@
+package com.reactive.crud.overload;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+// A periodic timer on an event loop fires late by however long that loop was busy with other work
+@ApplicationScoped
+public class EventLoopLagProbe {
+
+    @Inject
+    Vertx vertx;
+
+    @ConfigProperty(name = "product.admission.lag-probe-interval", defaultValue = "50ms")
+    Duration interval;
+
+    private volatile long lagNanos;
+    private long expectedNanos;
+    private long timerId = -1;
+
+    void onStart(@Observes StartupEvent event) {
+        long intervalNanos = interval.toNanos();
+        expectedNanos = System.nanoTime() + intervalNanos;
+        timerId = vertx.setPeriodic(interval.toMillis(), id -> {
+            long now = System.nanoTime();
+            lagNanos = Math.max(0, now - expectedNanos);
+            expectedNanos = now + intervalNanos;
+        });
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+        }
+    }
+
+    public long lagNanos() {
+        return lagNanos;
+    }
+}
@@ -0,0 +1,68 @@
+package com.reactive.crud.ratelimit;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.function.LongFunction;
+
+// Permits leased from the shared Redis budget for one route/key; refilled with one lease per batch
+final class LocalBucket {
+
+    private static final Uni<Boolean> GRANTED = Uni.createFrom().item(true);
+    private static final Uni<Boolean> DENIED = Uni.createFrom().item(false);
+
+    // Guarded by "this"
+    private long window = -1;
+    private long permits;
+    private boolean exhausted;
+    private Uni<Long> pendingLease;
+
+    // lease returns how many permits Redis granted for the given window (0 when its budget is used up)
+    Uni<Boolean> tryAcquire(long currentWindow, LongFunction<Uni<Long>> lease) {
+        Uni<Long> waitFor;
+        synchronized (this) {
+            // Never move back: a request that waited across a window boundary uses the newer window
+            if (currentWindow > window) {
+                window = currentWindow;
+                permits = 0;
+                exhausted = false;
+                pendingLease = null;
+            }
+            if (permits > 0) {
+                permits--;
+                return GRANTED;
+            }
+            if (exhausted) {
+                return DENIED;
+            }
+            if (pendingLease == null) {
+                long leaseWindow = window;
+                // Concurrent requests share one Redis round trip
+                pendingLease = lease.apply(leaseWindow)
+                        .invoke(granted -> onLease(leaseWindow, granted))
+                        .onFailure().invoke(failure -> onLeaseFailure(leaseWindow))
+                        .memoize().indefinitely();
+            }
+            waitFor = pendingLease;
+        }
+        return waitFor.chain(() -> tryAcquire(currentWindow, lease));
+    }
+
+    synchronized boolean isIdle(long currentWindow) {
+        return window < currentWindow - 1 && pendingLease == null;
+    }
+
+    private synchronized void onLease(long leaseWindow, long granted) {
+        if (leaseWindow != window) {
+            return;
+        }
+        permits += granted;
+        exhausted = granted == 0;
+        pendingLease = null;
+    }
+
+    private synchronized void onLeaseFailure(long leaseWindow) {
+        if (leaseWindow == window) {
+            pendingLease = null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.reactive.crud.ratelimit;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@ConfigMapping(prefix = "product.rate-limit")
+public interface RateLimitConfig {
+
+    @WithDefault("true")
+    boolean enabled();
+
+    // Requests without this header are limited per client address
+    @WithDefault("X-API-Key")
+    String apiKeyHeader();
+
+    // Permits taken from Redis per round trip; unused ones expire with the window
+    @WithDefault("20")
+    int leaseSize();
+
+    Map<String, Route> route();
+
+    interface Route {
+        // Path prefix; the longest matching prefix wins
+        String path();
+
+        // Empty means every method
+        Optional<Set<String>> methods();
+
+        // Requests per window and API key, shared by all instances
+        int limit();
+
+        @WithDefault("1m")
+        Duration window();
+    }
+}
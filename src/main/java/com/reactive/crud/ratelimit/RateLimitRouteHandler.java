@@ -0,0 +1,103 @@
+package com.reactive.crud.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Runs before admission control, so a single noisy client is turned away before it takes shared capacity
+@ApplicationScoped
+public class RateLimitRouteHandler {
+
+    @Inject
+    RateLimiter rateLimiter;
+
+    @Inject
+    RateLimitConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Timer overheadTimer;
+
+    @PostConstruct
+    void init() {
+        overheadTimer = Timer.builder("rate.limit.overhead")
+                .description("Time spent deciding whether a request is within its rate limit")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    void register(@Observes Router router) {
+        if (config.enabled() && !config.route().isEmpty()) {
+            router.route("/api/*").order(-110).handler(this::handle);
+        }
+    }
+
+    void handle(RoutingContext context) {
+        String method = context.request().method().name();
+        Map.Entry<String, RateLimitConfig.Route> route = match(context.normalizedPath(), method);
+        if (route == null) {
+            context.next();
+            return;
+        }
+        long start = System.nanoTime();
+        // A cold bucket waits on Redis: hold the body until the next handler is there to read it
+        context.request().pause();
+        rateLimiter.acquire(route.getKey(), route.getValue(), clientKey(context))
+                .subscribe().with(decision -> {
+                    overheadTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                    context.request().resume();
+                    if (decision.allowed()) {
+                        context.next();
+                        return;
+                    }
+                    context.response()
+                            .setStatusCode(429)
+                            .putHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()))
+                            .putHeader("X-RateLimit-Limit", String.valueOf(decision.limit()))
+                            .putHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+                            .end("Rate limit exceeded");
+                }, failure -> {
+                    context.request().resume();
+                    context.fail(failure);
+                });
+    }
+
+    Map.Entry<String, RateLimitConfig.Route> match(String path, String method) {
+        Map.Entry<String, RateLimitConfig.Route> best = null;
+        for (Map.Entry<String, RateLimitConfig.Route> entry : config.route().entrySet()) {
+            RateLimitConfig.Route route = entry.getValue();
+            boolean methodMatches = route.methods().map(methods -> methods.contains(method)).orElse(true);
+            if (methodMatches && underPath(path, route.path())
+                    && (best == null || route.path().length() > best.getValue().path().length())) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    // Whole path segments only: /api/products/export covers /api/products/export/sharded but not /api/products/exports
+    static boolean underPath(String path, String prefix) {
+        if (!path.startsWith(prefix)) {
+            return false;
+        }
+        return path.length() == prefix.length() || prefix.endsWith("/") || path.charAt(prefix.length()) == '/';
+    }
+
+    private String clientKey(RoutingContext context) {
+        String apiKey = context.request().getHeader(config.apiKeyHeader());
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + context.request().remoteAddress().host();
+    }
+}
@@ -0,0 +1,125 @@
+package com.reactive.crud.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.quarkus.redis.datasource.value.ReactiveValueCommands;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// Fixed-window budget per route and API key in Redis (INCRBY), handed out to each instance in leases
+// of several permits so most requests are decided locally without a Redis round trip
+@ApplicationScoped
+public class RateLimiter {
+
+    private static final Logger LOG = Logger.getLogger(RateLimiter.class);
+    private static final String KEY_PREFIX = "ratelimit:";
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    public record Decision(boolean allowed, int limit, long retryAfterSeconds) {
+    }
+
+    @Inject
+    ReactiveRedisDataSource redis;
+
+    @Inject
+    RateLimitConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Vertx vertx;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+    private ReactiveValueCommands<String, Long> counters;
+    private ReactiveKeyCommands<String> keys;
+    private Timer leaseTimer;
+    private Counter redisErrors;
+    private long sweepTimerId = -1;
+
+    @PostConstruct
+    void init() {
+        counters = redis.value(Long.class);
+        keys = redis.key();
+        leaseTimer = Timer.builder("rate.limit.lease")
+                .description("Redis round trip to lease a batch of permits")
+                .register(registry);
+        redisErrors = registry.counter("rate.limit.redis.errors");
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        sweepTimerId = vertx.setPeriodic(SWEEP_INTERVAL_MS, id -> sweep());
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (sweepTimerId != -1) {
+            vertx.cancelTimer(sweepTimerId);
+        }
+    }
+
+    public Uni<Decision> acquire(String routeName, RateLimitConfig.Route route, String clientKey) {
+        long windowMillis = route.window().toMillis();
+        long now = clock.getAsLong();
+        long window = now / windowMillis;
+        long retryAfterSeconds = Math.max(1, ((window + 1) * windowMillis - now + 999) / 1000);
+
+        LocalBucket bucket = buckets.computeIfAbsent(routeName + ":" + clientKey, k -> new LocalBucket());
+        return bucket.tryAcquire(window, leaseWindow -> lease(routeName, route, clientKey, leaseWindow))
+                .onItem().transform(allowed -> {
+                    if (!allowed) {
+                        registry.counter("rate.limit.rejected", "route", routeName).increment();
+                    }
+                    return new Decision(allowed, route.limit(), retryAfterSeconds);
+                })
+                // Fail open: losing Redis must not take the API down with it
+                .onFailure().recoverWithItem(failure -> {
+                    redisErrors.increment();
+                    LOG.warnf("Rate limit lease failed for route %s, allowing request: %s", routeName, failure.getMessage());
+                    return new Decision(true, route.limit(), retryAfterSeconds);
+                });
+    }
+
+    private Uni<Long> lease(String routeName, RateLimitConfig.Route route, String clientKey, long window) {
+        String key = KEY_PREFIX + routeName + ":" + clientKey + ":" + window;
+        long leaseSize = Math.min(config.leaseSize(), route.limit());
+        long start = System.nanoTime();
+        return counters.incrby(key, leaseSize)
+                .call(total -> total == leaseSize
+                        // First lease of the window creates the key; let it expire with the window
+                        ? keys.pexpire(key, route.window().plusSeconds(1)).replaceWithVoid()
+                        : Uni.createFrom().voidItem())
+                .onItem().transform(total -> {
+                    // The last lease may only get part of the batch
+                    long granted = Math.max(0, Math.min(leaseSize, route.limit() - (total - leaseSize)));
+                    registry.counter("rate.limit.leases", "route", routeName).increment();
+                    return granted;
+                })
+                .onTermination().invoke(() -> leaseTimer.record(Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    // Drop buckets of clients that have not been seen for a full window
+    void sweep() {
+        long now = clock.getAsLong();
+        buckets.entrySet().removeIf(entry -> {
+            RateLimitConfig.Route route = config.route().get(entry.getKey().substring(0, entry.getKey().indexOf(':')));
+            return route == null || entry.getValue().isIdle(now / route.window().toMillis());
+        });
+    }
+}
@@ -1,15 +1,21 @@
 package com.reactive.crud.repository;
 
+import com.reactive.crud.entity.CatalogVersion;
 import com.reactive.crud.entity.Product;
+import com.reactive.crud.entity.ProductDeletion;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.tuples.Tuple2;
 import io.vertx.mutiny.pgclient.PgPool;
 import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.SqlConnection;
 import io.vertx.mutiny.sqlclient.Tuple;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @ApplicationScoped
 public class ProductRepository {
@@ -18,22 +24,60 @@ public class ProductRepository {
     PgPool client;
 
     private static final String FIND_ALL_QUERY =
-            "SELECT id, name, description, price, created_at, updated_at FROM products ORDER BY id";
+            "SELECT id, name, description, price, owner_id, created_at, updated_at FROM products ORDER BY id";
 
     private static final String FIND_BY_ID_QUERY =
-            "SELECT id, name, description, price, created_at, updated_at FROM products WHERE id = $1";
+            "SELECT id, name, description, price, owner_id, created_at, updated_at FROM products WHERE id = $1";
 
     private static final String INSERT_QUERY =
-            "INSERT INTO products (name, description, price, created_at, updated_at) " +
-            "VALUES ($1, $2, $3, $4, $5) RETURNING id, name, description, price, created_at, updated_at";
+            "INSERT INTO products (name, description, price, owner_id, created_at, updated_at) " +
+            "VALUES ($1, $2, $3, $4, $5, $6) RETURNING id, name, description, price, owner_id, created_at, updated_at";
 
     private static final String UPDATE_QUERY =
-            "UPDATE products SET name = $1, description = $2, price = $3, updated_at = $4 " +
-            "WHERE id = $5 RETURNING id, name, description, price, created_at, updated_at";
+            "UPDATE products SET name = $1, description = $2, price = $3, owner_id = $4, updated_at = $5 " +
+            "WHERE id = $6 RETURNING id, name, description, price, owner_id, created_at, updated_at";
+
+    // Optimistic variant: only applies while the row still has the updated_at the caller saw
+    private static final String CONDITIONAL_UPDATE_QUERY =
+            "UPDATE products SET name = $1, description = $2, price = $3, owner_id = $4, updated_at = $5 " +
+            "WHERE id = $6 AND updated_at = $7 RETURNING id, name, description, price, owner_id, created_at, updated_at";
+
+    private static final String UPSERT_QUERY =
+            "INSERT INTO products (id, name, description, price, owner_id, created_at, updated_at) " +
+            "VALUES ($1, $2, $3, $4, $5, $6, $6) ON CONFLICT (id) DO UPDATE SET " +
+            "name = EXCLUDED.name, description = EXCLUDED.description, price = EXCLUDED.price, " +
+            "owner_id = EXCLUDED.owner_id, updated_at = EXCLUDED.updated_at";
+
+    private static final String SYNC_ID_SEQUENCE_QUERY =
+            "SELECT setval(pg_get_serial_sequence('products', 'id'), GREATEST((SELECT MAX(id) FROM products), 1))";
 
     private static final String DELETE_QUERY =
             "DELETE FROM products WHERE id = $1";
 
+    private static final String CONDITIONAL_DELETE_QUERY =
+            "DELETE FROM products WHERE id = $1 AND updated_at = $2";
+
+    // One row kept by statement triggers on products (db/init.sql), instead of aggregating the table per request
+    private static final String CATALOG_VERSION_QUERY =
+            "SELECT version, product_count, updated_at FROM catalog_version WHERE id = 1";
+
+    private static final String FIND_ID_RANGE_QUERY =
+            "SELECT id, name, description, price, owner_id, created_at, updated_at FROM products " +
+            "WHERE id >= $1 AND id < $2 ORDER BY id";
+
+    private static final String ID_BOUNDS_QUERY =
+            "SELECT MIN(id), MAX(id) FROM products";
+
+    private static final String FIND_UPDATED_SINCE_QUERY =
+            "SELECT id, name, description, price, owner_id, created_at, updated_at FROM products " +
+            "WHERE updated_at > $1 ORDER BY updated_at, id";
+
+    private static final String FIND_DELETIONS_SINCE_QUERY =
+            "SELECT seq, product_id, deleted_at FROM product_deletions WHERE seq > $1 ORDER BY seq";
+
+    private static final String MAX_DELETION_SEQ_QUERY =
+            "SELECT COALESCE(MAX(seq), 0) FROM product_deletions";
+
     public Multi<Product> findAll() {
         return client.query(FIND_ALL_QUERY)
                 .execute()
@@ -41,6 +85,58 @@ public class ProductRepository {
                 .onItem().transform(this::toProduct);
     }
 
+    // Cursor-based read: rows are fetched fetchSize at a time as downstream requests them
+    public Multi<Product> streamAll(int fetchSize) {
+        return stream(FIND_ALL_QUERY, Tuple.tuple(), fetchSize)
+                .onItem().transform(this::toProduct);
+    }
+
+    // Each call streams over its own pooled connection, so ranges can be read in parallel
+    public Multi<Product> streamIdRange(long fromInclusive, long toExclusive, int fetchSize) {
+        return stream(FIND_ID_RANGE_QUERY, Tuple.of(fromInclusive, toExclusive), fetchSize)
+                .onItem().transform(this::toProduct);
+    }
+
+    // min and max id, or null when the table is empty
+    public Uni<Tuple2<Long, Long>> idBounds() {
+        return client.query(ID_BOUNDS_QUERY)
+                .execute()
+                .onItem().transform(rowSet -> {
+                    Row row = rowSet.iterator().next();
+                    return row.getLong(0) == null ? null : Tuple2.of(row.getLong(0), row.getLong(1));
+                });
+    }
+
+    public Multi<Product> streamUpdatedSince(LocalDateTime since, int fetchSize) {
+        return stream(FIND_UPDATED_SINCE_QUERY, Tuple.of(since), fetchSize)
+                .onItem().transform(this::toProduct);
+    }
+
+    public Multi<ProductDeletion> streamDeletionsSince(long seq, int fetchSize) {
+        return stream(FIND_DELETIONS_SINCE_QUERY, Tuple.of(seq), fetchSize)
+                .onItem().transform(row -> new ProductDeletion(
+                        row.getLong("seq"),
+                        row.getLong("product_id"),
+                        row.getLocalDateTime("deleted_at")
+                ));
+    }
+
+    public Uni<Long> maxDeletionSeq() {
+        return client.query(MAX_DELETION_SEQ_QUERY)
+                .execute()
+                .onItem().transform(rowSet -> rowSet.iterator().next().getLong(0));
+    }
+
+    public Uni<CatalogVersion> catalogVersion() {
+        return client.query(CATALOG_VERSION_QUERY)
+                .execute()
+                .onItem().transform(rowSet -> {
+                    Row row = rowSet.iterator().next();
+                    return new CatalogVersion(row.getLong("version"), row.getLong("product_count"),
+                            row.getLocalDateTime("updated_at"));
+                });
+    }
+
     public Uni<Product> findById(Long id) {
         return client.preparedQuery(FIND_BY_ID_QUERY)
                 .execute(Tuple.of(id))
@@ -59,6 +155,7 @@ public class ProductRepository {
                         product.getName(),
                         product.getDescription(),
                         product.getPrice(),
+                        product.getOwnerId(),
                         now,
                         now
                 ))
@@ -72,6 +169,7 @@ public class ProductRepository {
                         product.getName(),
                         product.getDescription(),
                         product.getPrice(),
+                        product.getOwnerId(),
                         now,
                         product.getId()
                 ))
@@ -83,18 +181,92 @@ public class ProductRepository {
                 });
     }
 
+    // null when the row is gone or was changed after expectedUpdatedAt
+    public Uni<Product> update(Product product, LocalDateTime expectedUpdatedAt) {
+        return client.preparedQuery(CONDITIONAL_UPDATE_QUERY)
+                .execute(Tuple.from(new Object[]{
+                        product.getName(),
+                        product.getDescription(),
+                        product.getPrice(),
+                        product.getOwnerId(),
+                        LocalDateTime.now(),
+                        product.getId(),
+                        expectedUpdatedAt
+                }))
+                .onItem().transform(rowSet -> {
+                    if (rowSet.size() == 0) {
+                        return null;
+                    }
+                    return toProduct(rowSet.iterator().next());
+                });
+    }
+
+    // Rows with an id are upserted (e.g. re-importing an export), rows without one are inserted
+    public Uni<Integer> importBatch(List<Product> products) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Tuple> inserts = new ArrayList<>();
+        List<Tuple> upserts = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getId() == null) {
+                inserts.add(Tuple.of(product.getName(), product.getDescription(), product.getPrice(),
+                        product.getOwnerId(), now, now));
+            } else {
+                upserts.add(Tuple.of(product.getId(), product.getName(), product.getDescription(),
+                        product.getPrice(), product.getOwnerId(), now));
+            }
+        }
+
+        // executeBatch pipelines all rows of a statement in one round trip
+        return client.withTransaction(connection -> executeBatch(connection, INSERT_QUERY, inserts)
+                .chain(() -> executeBatch(connection, UPSERT_QUERY, upserts))
+                .replaceWith(products.size()));
+    }
+
+    // Explicit ids from an import bypass the sequence; move it past them
+    public Uni<Void> syncIdSequence() {
+        return client.query(SYNC_ID_SEQUENCE_QUERY)
+                .execute()
+                .replaceWithVoid();
+    }
+
     public Uni<Boolean> delete(Long id) {
         return client.preparedQuery(DELETE_QUERY)
                 .execute(Tuple.of(id))
                 .onItem().transform(rowSet -> rowSet.rowCount() > 0);
     }
 
-    private Product toProduct(Row row) {
+    public Uni<Boolean> delete(Long id, LocalDateTime expectedUpdatedAt) {
+        return client.preparedQuery(CONDITIONAL_DELETE_QUERY)
+                .execute(Tuple.of(id, expectedUpdatedAt))
+                .onItem().transform(rowSet -> rowSet.rowCount() > 0);
+    }
+
+    private Uni<Void> executeBatch(SqlConnection connection, String query, List<Tuple> batch) {
+        if (batch.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return connection.preparedQuery(query).executeBatch(batch).replaceWithVoid();
+    }
+
+    private Multi<Row> stream(String query, Tuple params, int fetchSize) {
+        return Multi.createFrom().resourceFromUni(
+                        // Postgres cursors only live inside a transaction
+                        () -> client.getConnection().call(SqlConnection::begin),
+                        connection -> connection.prepare(query)
+                                .onItem().transformToMulti(statement -> statement.createStream(fetchSize, params).toMulti()))
+                .withFinalizer((SqlConnection connection) -> connection.transaction().commit()
+                        .onFailure().recoverWithNull()
+                        .eventually(connection::close));
+    }
+
+    // Package-private for the row mapping benchmark (benchmarks/)
+    Product toProduct(Row row) {
         return new Product(
                 row.getLong("id"),
                 row.getString("name"),
                 row.getString("description"),
                 row.getBigDecimal("price"),
+                row.getLong("owner_id"),
                 row.getLocalDateTime("created_at"),
                 row.getLocalDateTime("updated_at")
         );
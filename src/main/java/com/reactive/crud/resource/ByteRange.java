@@ -0,0 +1,51 @@
+package com.reactive.crud.resource;
+
+// A single "bytes=" range, resolved against the file size; end is inclusive
+record ByteRange(long start, long end) {
+
+    private static final String UNIT = "bytes=";
+
+    boolean isSatisfiable(long size) {
+        return start < size && start <= end;
+    }
+
+    long length() {
+        return end - start + 1;
+    }
+
+    String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    // null means "serve the whole file": no header, another unit, several ranges or bad syntax
+    static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith(UNIT) || header.contains(",")) {
+            return null;
+        }
+        String spec = header.substring(UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) {
+                    return null;
+                }
+                return suffix == 0 ? new ByteRange(size, size - 1) : new ByteRange(Math.max(size - suffix, 0), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+                return null;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.reactive.crud.resource;
+
+import com.reactive.crud.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+
+public class DeadlineExceededExceptionMapper {
+
+    private static final Logger LOG = Logger.getLogger(DeadlineExceededExceptionMapper.class);
+
+    @Inject
+    MeterRegistry registry;
+
+    @ServerExceptionMapper
+    public Response mapDeadlineExceeded(DeadlineExceededException failure) {
+        registry.counter("request.deadline.exceeded",
+                "operation", failure.operation(), "abandoned", String.valueOf(failure.abandoned())).increment();
+        LOG.debugf("%s", failure.getMessage());
+        return Response.status(Response.Status.GATEWAY_TIMEOUT)
+                .entity("Request deadline exceeded")
+                .build();
+    }
+}
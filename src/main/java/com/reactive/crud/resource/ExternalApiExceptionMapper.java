@@ -0,0 +1,48 @@
+package com.reactive.crud.resource;
+
+import com.reactive.crud.http.ExternalApiClient;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public class ExternalApiExceptionMapper {
+
+    private static final Logger LOG = Logger.getLogger(ExternalApiExceptionMapper.class);
+
+    // The exception does not say which breaker is open, so wait out the longest delay of any of them
+    static final long CIRCUIT_OPEN_RETRY_AFTER_SECONDS = longestBreakerDelaySeconds();
+
+    @ServerExceptionMapper
+    public Response mapFaultToleranceException(FaultToleranceException failure) {
+        return unavailable(failure);
+    }
+
+    static Response unavailable(Throwable failure) {
+        LOG.warnf("External API unavailable: %s", failure.getClass().getSimpleName());
+        // An open circuit stays open for its delay; other rejections clear up quickly
+        String retryAfter = failure instanceof CircuitBreakerOpenException
+                ? String.valueOf(CIRCUIT_OPEN_RETRY_AFTER_SECONDS)
+                : "1";
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfter)
+                .entity("External API unavailable")
+                .build();
+    }
+
+    private static long longestBreakerDelaySeconds() {
+        long millis = Arrays.stream(ExternalApiClient.class.getMethods())
+                .map(method -> method.getAnnotation(CircuitBreaker.class))
+                .filter(Objects::nonNull)
+                .mapToLong(breaker -> breaker.delayUnit().getDuration().multipliedBy(breaker.delay()).toMillis())
+                .max()
+                .orElse(5_000);
+        return Math.max(1, (millis + 999) / 1000);
+    }
+}
@@ -0,0 +1,108 @@
+package com.reactive.crud.resource;
+
+import com.reactive.crud.file.FileService;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.file.FileProps;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.PathPart;
+
+import java.util.Date;
+
+@Path("/api/products/exports")
+public class ProductExportResource {
+
+    private static final Logger LOG = Logger.getLogger(ProductExportResource.class);
+
+    @Inject
+    FileService fileService;
+
+    // Served with sendFile (zero-copy), never read into the heap
+    @GET
+    @Path("/{fileName}")
+    public Uni<Response> downloadExport(@PathParam("fileName") String fileName,
+                                        @HeaderParam("Range") String range,
+                                        @HeaderParam("If-Range") String ifRange,
+                                        @Context Request request) {
+        LOG.debugf("REST request to download export %s (range %s)", fileName, range);
+        java.nio.file.Path path;
+        try {
+            path = fileService.exportPath(fileName);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+        }
+
+        return fileService.fileProps(path)
+                .onItem().transform(props -> props.isRegularFile()
+                        ? serve(path, props, range, ifRange, request)
+                        : Response.status(Response.Status.NOT_FOUND).build())
+                .onFailure().recoverWithItem(failure -> Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    private Response serve(java.nio.file.Path path, FileProps props, String range, String ifRange, Request request) {
+        long size = props.size();
+        // Export files are written once; size + mtime identify a version without hashing the content
+        EntityTag etag = new EntityTag(Long.toHexString(size) + "-" + Long.toHexString(props.lastModifiedTime()));
+        Date lastModified = new Date(props.lastModifiedTime() / 1000 * 1000);
+
+        Response.ResponseBuilder precondition = request.evaluatePreconditions(lastModified, etag);
+        if (precondition != null) {
+            return precondition.tag(etag).build();
+        }
+
+        ByteRange byteRange = ifRangeMatches(ifRange, etag) ? ByteRange.parse(range, size) : null;
+        if (byteRange == null) {
+            return file(Response.ok(new PathPart(path, 0, size)), path, etag, lastModified).build();
+        }
+        if (!byteRange.isSatisfiable(size)) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", "bytes */" + size)
+                    .build();
+        }
+        return file(Response.status(Response.Status.PARTIAL_CONTENT)
+                        .entity(new PathPart(path, byteRange.start(), byteRange.length())), path, etag, lastModified)
+                .header("Content-Range", byteRange.contentRange(size))
+                .build();
+    }
+
+    private Response.ResponseBuilder file(Response.ResponseBuilder builder, java.nio.file.Path path,
+                                          EntityTag etag, Date lastModified) {
+        String fileName = path.getFileName().toString();
+        return builder
+                .type(contentType(fileName))
+                .tag(etag)
+                .lastModified(lastModified)
+                .header("Accept-Ranges", "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+    }
+
+    // A stale If-Range means the client's partial copy is outdated: send the whole file instead
+    private boolean ifRangeMatches(String ifRange, EntityTag etag) {
+        return ifRange == null || ifRange.equals(etag.toString());
+    }
+
+    private String contentType(String fileName) {
+        if (fileName.endsWith(".gz")) {
+            return "application/gzip";
+        }
+        if (fileName.endsWith(".zst")) {
+            return "application/zstd";
+        }
+        if (fileName.endsWith(".ndjson")) {
+            return "application/x-ndjson";
+        }
+        if (fileName.endsWith(".csv")) {
+            return "text/csv";
+        }
+        return "application/json";
+    }
+}
@@ -1,22 +1,46 @@
 package com.reactive.crud.resource;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactive.crud.cache.CompressedListingCache;
+import com.reactive.crud.dto.EnrichedProductResponse;
+import com.reactive.crud.dto.ExternalUserCacheStats;
 import com.reactive.crud.dto.ExternalUserDto;
+import com.reactive.crud.dto.ProductEventDto;
 import com.reactive.crud.dto.ProductRequest;
 import com.reactive.crud.dto.ProductResponse;
-import com.reactive.crud.file.FileService;
+import com.reactive.crud.file.ExportCompression;
+import com.reactive.crud.file.ExportFormat;
+import com.reactive.crud.file.ProductExporter;
 import com.reactive.crud.http.HttpClientService;
+import com.reactive.crud.idempotency.IdempotencyInProgressException;
+import com.reactive.crud.idempotency.IdempotencyKeyReuseException;
+import com.reactive.crud.idempotency.IdempotencyService;
+import com.reactive.crud.messaging.ProductChangeHub;
+import com.reactive.crud.service.ProductEnrichmentService;
+import com.reactive.crud.service.ProductExportService;
+import com.reactive.crud.service.ProductImportService;
 import com.reactive.crud.service.ProductService;
+import com.reactive.crud.service.StaleProductException;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.file.FileSystemException;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
 import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import org.jboss.resteasy.reactive.Separator;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @Path("/api/products")
 @Produces(MediaType.APPLICATION_JSON)
@@ -24,86 +48,268 @@ import java.util.List;
 public class ProductResource {
 
     private static final Logger LOG = Logger.getLogger(ProductResource.class);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
 
     @Inject
     ProductService productService;
 
+    @Inject
+    ProductEnrichmentService enrichmentService;
+
     @Inject
     HttpClientService httpClientService;
 
     @Inject
-    FileService fileService;
+    ProductExportService exportService;
+
+    @Inject
+    ProductImportService importService;
+
+    @Inject
+    ProductChangeHub changeHub;
+
+    @Inject
+    IdempotencyService idempotencyService;
+
+    @Inject
+    CompressedListingCache listingCache;
 
     @Inject
-    ObjectMapper objectMapper;
+    ProductExporter exporter;
 
+    // Above this many products the listing is streamed from the cursor instead of being cached in the heap
+    @ConfigProperty(name = "product.listing.cache.max-rows", defaultValue = "20000")
+    long listingCacheMaxRows;
+
+    // The catalog version is checked first, so an unchanged listing costs a single-row read and a 304.
+    // Otherwise the body comes pre-serialized (and pre-gzipped) from the cache for that version,
+    // or, for catalogs over max-rows, is encoded chunk by chunk while it is written
     @GET
-    public Multi<ProductResponse> getAllProducts() {
+    public Uni<Response> getAllProducts(@Context Request request,
+                                        @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
         LOG.debug("REST request to get all products");
-        return productService.getAllProducts();
+        return productService.getCatalogVersion().chain(version -> {
+            EntityTag etag = ProductValidators.etag(version);
+            EntityTag gzipEtag = ProductValidators.gzipVariant(etag);
+            Date lastModified = ProductValidators.lastModified(version.lastModified());
+            boolean acceptsGzip = CompressedListingCache.acceptsGzip(acceptEncoding);
+            // Small listings go out uncompressed even to gzip clients, so those may hold either tag of this version
+            Response.ResponseBuilder notModified = acceptsGzip ? notModified(request, lastModified, gzipEtag) : null;
+            if (notModified == null) {
+                notModified = notModified(request, lastModified, etag);
+            }
+            if (notModified != null) {
+                return Uni.createFrom().item(notModified.build());
+            }
+            if (version.count() > listingCacheMaxRows) {
+                ExportCompression compression = acceptsGzip ? ExportCompression.GZIP : ExportCompression.NONE;
+                StreamedBody body = new StreamedBody(exporter.encode(productService.streamAllProducts(),
+                        ExportFormat.JSON_COMPACT, compression));
+                Response.ResponseBuilder response = acceptsGzip
+                        ? Response.ok(body).encoding("gzip").tag(gzipEtag)
+                        : Response.ok(body).tag(etag);
+                return Uni.createFrom().item(response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .lastModified(lastModified).build());
+            }
+            return listingCache.get(etag.getValue(), () -> productService.getAllProducts().collect().asList())
+                    .onItem().transform(body -> {
+                        Response.ResponseBuilder response = body.compressed() && acceptsGzip
+                                ? Response.ok(body.gzip()).encoding("gzip").tag(gzipEtag)
+                                : Response.ok(body.json()).tag(etag);
+                        return response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                                .lastModified(lastModified).build();
+                    });
+        });
+    }
+
+    private static Response.ResponseBuilder notModified(Request request, Date lastModified, EntityTag etag) {
+        Response.ResponseBuilder notModified = lastModified == null
+                ? request.evaluatePreconditions(etag)
+                : request.evaluatePreconditions(lastModified, etag);
+        return notModified != null ? notModified.tag(etag) : null;
+    }
+
+    // One JSON document per line, written as each row leaves the cursor
+    @GET
+    @Produces("application/x-ndjson")
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<ProductResponse> streamProductsAsNdjson() {
+        LOG.debug("REST request to stream all products as NDJSON");
+        return productService.streamAllProducts();
+    }
+
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<ProductResponse> streamProductsAsEvents() {
+        LOG.debug("REST request to stream all products as server-sent events");
+        return productService.streamAllProducts();
+    }
+
+    // Live CREATED/UPDATED/DELETED feed; replaces polling the whole listing
+    @GET
+    @Path("/changes")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<ProductEventDto> streamProductChanges(@QueryParam("overflow") String overflow) {
+        LOG.debugf("REST request to subscribe to product changes (overflow=%s)", overflow);
+        if (overflow == null) {
+            return changeHub.subscribe();
+        }
+        try {
+            return changeHub.subscribe(ProductChangeHub.OverflowPolicy.valueOf(overflow.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown overflow policy: " + overflow);
+        }
+    }
+
+    @GET
+    @Path("/enriched")
+    public Multi<EnrichedProductResponse> getEnrichedProducts() {
+        LOG.debug("REST request to get all products with their owners");
+        return enrichmentService.getEnrichedProducts();
     }
 
     @GET
     @Path("/{id}")
-    public Uni<Response> getProductById(@PathParam("id") Long id) {
+    public Uni<Response> getProductById(@PathParam("id") Long id, @Context Request request) {
         LOG.debugf("REST request to get product with id: %d", id);
-        return productService.getProductById(id)
-                .onItem().ifNotNull().transform(product -> Response.ok(product).build())
+        // Served from the Redis cache when possible, so a 304 usually never reaches Postgres
+        return productService.lookupProductById(id)
+                .onItem().ifNotNull().transform(lookup -> {
+                    ProductResponse product = lookup.product();
+                    EntityTag etag = ProductValidators.etag(product);
+                    Date lastModified = ProductValidators.lastModified(product.updatedAt());
+                    Response.ResponseBuilder notModified = request.evaluatePreconditions(lastModified, etag);
+                    Response.ResponseBuilder response = notModified != null
+                            ? notModified.tag(etag)
+                            : Response.ok(product).tag(etag).lastModified(lastModified);
+                    if (lookup.stale()) {
+                        // Database unavailable: last known copy, marked so clients can tell
+                        response.header("Warning", "110 - \"Response is Stale\"")
+                                .header("Age", lookup.ageSeconds());
+                    }
+                    return response.build();
+                })
                 .onItem().ifNull().continueWith(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     @POST
-    public Uni<Response> createProduct(@Valid ProductRequest request) {
+    public Uni<Response> createProduct(@Valid ProductRequest request,
+                                       @HeaderParam(IDEMPOTENCY_KEY) String idempotencyKey) {
         LOG.debugf("REST request to create product: %s", request.name());
-        return productService.createProduct(request)
-                .onItem().transform(product ->
-                        Response.status(Response.Status.CREATED).entity(product).build()
+        if (idempotencyKey == null) {
+            return productService.createProduct(request)
+                    .onItem().transform(product -> created(product).build());
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(IDEMPOTENCY_KEY + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters").build());
+        }
+
+        // Retries with the same key get the stored response without touching the database
+        return idempotencyService.execute(idempotencyKey, request, () -> productService.createProduct(request))
+                .onItem().transform(outcome -> {
+                    Response.ResponseBuilder response = created(outcome.product());
+                    if (outcome.replayed()) {
+                        response.header("Idempotent-Replayed", "true");
+                    }
+                    return response.build();
+                })
+                .onFailure(IdempotencyKeyReuseException.class).recoverWithItem(failure ->
+                        Response.status(422).entity(failure.getMessage()).build()
+                )
+                .onFailure(IdempotencyInProgressException.class).recoverWithItem(failure ->
+                        Response.status(Response.Status.CONFLICT)
+                                .header(HttpHeaders.RETRY_AFTER, 1)
+                                .entity(failure.getMessage())
+                                .build()
                 );
     }
 
+    private static Response.ResponseBuilder created(ProductResponse product) {
+        return Response.status(Response.Status.CREATED).entity(product).tag(ProductValidators.etag(product));
+    }
+
     @PUT
     @Path("/{id}")
-    public Uni<Response> updateProduct(@PathParam("id") Long id, @Valid ProductRequest request) {
+    public Uni<Response> updateProduct(@PathParam("id") Long id, @Valid ProductRequest request,
+                                       @HeaderParam("If-Match") String ifMatch) {
         LOG.debugf("REST request to update product with id: %d", id);
-        return productService.updateProduct(id, request)
-                .onItem().ifNotNull().transform(product -> Response.ok(product).build())
-                .onItem().ifNull().continueWith(Response.status(Response.Status.NOT_FOUND).build());
+        Uni<ProductResponse> update = ifMatch == null
+                ? productService.updateProduct(id, request)
+                : productService.updateProduct(id, request,
+                        current -> ProductValidators.ifMatch(ifMatch, ProductValidators.etag(current)));
+        return update
+                .onItem().ifNotNull().transform(product -> Response.ok(product).tag(ProductValidators.etag(product)).build())
+                .onItem().ifNull().continueWith(Response.status(Response.Status.NOT_FOUND).build())
+                .onFailure(StaleProductException.class).recoverWithItem(Response.status(Response.Status.PRECONDITION_FAILED).build());
     }
 
     @DELETE
     @Path("/{id}")
-    public Uni<Response> deleteProduct(@PathParam("id") Long id) {
+    public Uni<Response> deleteProduct(@PathParam("id") Long id, @HeaderParam("If-Match") String ifMatch) {
         LOG.debugf("REST request to delete product with id: %d", id);
-        return productService.deleteProduct(id)
+        Uni<Boolean> delete = ifMatch == null
+                ? productService.deleteProduct(id)
+                : productService.deleteProduct(id,
+                        current -> ProductValidators.ifMatch(ifMatch, ProductValidators.etag(current)));
+        return delete
                 .onItem().transform(deleted -> {
                     if (deleted) {
                         return Response.noContent().build();
                     } else {
                         return Response.status(Response.Status.NOT_FOUND).build();
                     }
-                });
+                })
+                .onFailure(StaleProductException.class).recoverWithItem(Response.status(Response.Status.PRECONDITION_FAILED).build());
     }
 
     // New endpoints demonstrating all reactive features
 
     @GET
     @Path("/export")
-    @Produces(MediaType.TEXT_PLAIN)
-    public Uni<Response> exportProducts() {
-        LOG.debug("REST request to export products to file");
-        return productService.getAllProducts()
-                .collect().asList()
-                .chain(products -> {
-                    try {
-                        String json = objectMapper.writerWithDefaultPrettyPrinter()
-                                .writeValueAsString(products);
-                        return fileService.exportProductsToFile(json);
-                    } catch (Exception e) {
-                        return Uni.createFrom().failure(e);
-                    }
-                })
-                .onItem().transform(filePath ->
-                        Response.ok("Products exported to: " + filePath).build()
+    public Uni<Response> exportProducts(@QueryParam("format") @DefaultValue("json") String format,
+                                        @QueryParam("compression") @DefaultValue("none") String compression) {
+        LOG.debugf("REST request to export products to file (format=%s, compression=%s)", format, compression);
+        ExportFormat exportFormat;
+        ExportCompression exportCompression;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+            exportCompression = ExportCompression.fromParam(compression);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+        }
+
+        return exportService.fullExport(exportFormat, exportCompression)
+                .onItem().transform(result -> Response.ok(result).build())
+                .onFailure().recoverWithItem(failure ->
+                        Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                                .entity("Export failed: " + failure.getMessage())
+                                .build()
+                );
+    }
+
+    @GET
+    @Path("/export/sharded")
+    public Uni<Response> exportProductsSharded(@QueryParam("shards") @DefaultValue("4") int shards,
+                                               @QueryParam("format") @DefaultValue("json") String format,
+                                               @QueryParam("compression") @DefaultValue("none") String compression) {
+        LOG.debugf("REST request to export products in %d shards", shards);
+        ExportFormat exportFormat;
+        ExportCompression exportCompression;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+            exportCompression = ExportCompression.fromParam(compression);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+        }
+
+        return exportService.shardedExport(shards, exportFormat, exportCompression)
+                .onItem().transform(result -> Response.ok(result).build())
+                .onFailure(IllegalArgumentException.class).recoverWithItem(failure ->
+                        Response.status(Response.Status.BAD_REQUEST).entity(failure.getMessage()).build()
                 )
                 .onFailure().recoverWithItem(failure ->
                         Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -112,6 +318,49 @@ public class ProductResource {
                 );
     }
 
+    @GET
+    @Path("/export/delta")
+    public Uni<Response> exportProductChanges(@QueryParam("compression") @DefaultValue("none") String compression) {
+        LOG.debugf("REST request to export product changes since the last export (compression=%s)", compression);
+        ExportCompression exportCompression;
+        try {
+            exportCompression = ExportCompression.fromParam(compression);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+        }
+
+        return exportService.deltaExport(exportCompression)
+                .onItem().transform(result -> Response.ok(result).build())
+                .onFailure().recoverWithItem(failure ->
+                        Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                                .entity("Export failed: " + failure.getMessage())
+                                .build()
+                );
+    }
+
+    @POST
+    @Path("/import")
+    public Uni<Response> importProducts(@QueryParam("file") String file) {
+        LOG.debugf("REST request to import products from %s", file);
+        if (file == null || file.isBlank()) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).entity("file is required").build());
+        }
+
+        return importService.importFile(file)
+                .onItem().transform(report -> Response.ok(report).build())
+                .onFailure(IllegalArgumentException.class).recoverWithItem(failure ->
+                        Response.status(Response.Status.BAD_REQUEST).entity(failure.getMessage()).build()
+                )
+                .onFailure(FileSystemException.class).recoverWithItem(failure ->
+                        Response.status(Response.Status.NOT_FOUND).entity("Import file not found: " + file).build()
+                )
+                .onFailure().recoverWithItem(failure ->
+                        Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                                .entity("Import failed: " + failure.getMessage())
+                                .build()
+                );
+    }
+
     @GET
     @Path("/external/users")
     public Uni<List<ExternalUserDto>> getExternalUsers() {
@@ -119,12 +368,29 @@ public class ProductResource {
         return httpClientService.fetchAllUsers();
     }
 
+    @GET
+    @Path("/external/users/batch")
+    public Uni<Map<Long, ExternalUserDto>> getExternalUsersByIds(@QueryParam("ids") @Separator(",") List<Long> ids) {
+        LOG.debugf("REST request to bulk fetch %d external users", ids.size());
+        return httpClientService.fetchUsersByIds(ids);
+    }
+
+    @GET
+    @Path("/external/users/cache-stats")
+    public ExternalUserCacheStats getExternalUserCacheStats() {
+        return httpClientService.cacheStats();
+    }
+
     @GET
     @Path("/external/users/{userId}")
     public Uni<Response> getExternalUserById(@PathParam("userId") Long userId) {
         LOG.debugf("REST request to fetch external user %d via HTTP client", userId);
         return httpClientService.fetchUserById(userId)
                 .onItem().transform(user -> Response.ok(user).build())
+                // Timeout, open circuit or full bulkhead: upstream unavailable, not a missing user
+                .onFailure(FaultToleranceException.class).recoverWithItem(failure ->
+                        ExternalApiExceptionMapper.unavailable(failure)
+                )
                 .onFailure().recoverWithItem(failure ->
                         Response.status(Response.Status.NOT_FOUND)
                                 .entity("User not found")
@@ -0,0 +1,58 @@
+package com.reactive.crud.resource;
+
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.entity.CatalogVersion;
+import jakarta.ws.rs.core.EntityTag;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+// HTTP validators (ETag / Last-Modified) for single products and for the whole listing
+final class ProductValidators {
+
+    private ProductValidators() {
+    }
+
+    // updated_at changes on every write (microsecond precision), so id + updated_at identifies a representation
+    static EntityTag etag(ProductResponse product) {
+        return new EntityTag(product.id() + "-" + Long.toHexString(epochMicros(product.updatedAt())));
+    }
+
+    // The version counter moves on every committed write, whatever the clocks of the writing instances say
+    static EntityTag etag(CatalogVersion version) {
+        return new EntityTag("v" + version.version());
+    }
+
+    // Strong ETags must differ per content coding, so the gzipped listing gets its own tag
+    static EntityTag gzipVariant(EntityTag etag) {
+        return new EntityTag(etag.getValue() + "-gz", etag.isWeak());
+    }
+
+    // null when unknown: evaluatePreconditions then relies on the ETag alone
+    static Date lastModified(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        return Date.from(timestamp.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    // If-Match uses strong comparison: weak tags never match, "*" matches any current representation
+    static boolean ifMatch(String header, EntityTag current) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(current.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long epochMicros(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return 0;
+        }
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), timestamp);
+    }
+}
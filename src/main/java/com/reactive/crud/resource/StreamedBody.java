@@ -0,0 +1,8 @@
+package com.reactive.crud.resource;
+
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+// A response entity whose bytes are produced while the response is written, for bodies too large to hold in memory
+public record StreamedBody(Multi<Buffer> chunks) {
+}
@@ -0,0 +1,59 @@
+package com.reactive.crud.resource;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import org.jboss.resteasy.reactive.server.core.ResteasyReactiveRequestContext;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerHttpResponse;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+// Writes a StreamedBody chunk by chunk with the Response headers already set (status, ETag, Content-Encoding);
+// the next chunk is only requested once the previous one was handed to the connection
+@Provider
+public class StreamedBodyWriter implements ServerMessageBodyWriter<StreamedBody> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target, MediaType mediaType) {
+        return StreamedBody.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return StreamedBody.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeResponse(StreamedBody body, Type genericType, ServerRequestContext context) {
+        ResteasyReactiveRequestContext request = (ResteasyReactiveRequestContext) context;
+        ServerHttpResponse response = context.serverResponse();
+        request.suspend();
+        response.setChunked(true);
+        Cancellable subscription = body.chunks()
+                .onItem().transformToUniAndConcatenate(chunk ->
+                        Uni.createFrom().completionStage(() -> response.write(chunk.getBytes())))
+                .subscribe().with(
+                        written -> {
+                        },
+                        request::resume,
+                        () -> {
+                            response.end();
+                            request.resume();
+                        });
+        // A client that goes away stops the upstream (and releases its database cursor)
+        response.addCloseHandler(subscription::cancel);
+    }
+
+    @Override
+    public void writeTo(StreamedBody body, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> headers, OutputStream out) {
+        throw new UnsupportedOperationException("StreamedBody is only written by the reactive server");
+    }
+}
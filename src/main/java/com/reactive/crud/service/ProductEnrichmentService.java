@@ -0,0 +1,62 @@
+package com.reactive.crud.service;
+
+import com.reactive.crud.dto.EnrichedProductResponse;
+import com.reactive.crud.dto.ExternalUserDto;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.http.HttpClientService;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@ApplicationScoped
+public class ProductEnrichmentService {
+
+    private static final Logger LOG = Logger.getLogger(ProductEnrichmentService.class);
+
+    @Inject
+    ProductService productService;
+
+    @Inject
+    HttpClientService httpClientService;
+
+    @ConfigProperty(name = "product.enrichment.batch-size", defaultValue = "100")
+    int batchSize;
+
+    @ConfigProperty(name = "product.enrichment.concurrency", defaultValue = "4")
+    int concurrency;
+
+    // Batches are resolved concurrently and emitted as they complete, so output order is not the DB order
+    public Multi<EnrichedProductResponse> getEnrichedProducts() {
+        LOG.debug("Fetching all products with their owners");
+        return productService.getAllProducts()
+                .group().intoLists().of(batchSize)
+                .onItem().transformToUni(this::enrichBatch).merge(concurrency)
+                .onItem().transformToMultiAndConcatenate(batch -> Multi.createFrom().iterable(batch));
+    }
+
+    private Uni<List<EnrichedProductResponse>> enrichBatch(List<ProductResponse> products) {
+        // One lookup per distinct owner; HttpClientService caches and coalesces across batches
+        Set<Long> ownerIds = products.stream()
+                .map(ProductResponse::ownerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Uni<Map<Long, ExternalUserDto>> owners = ownerIds.isEmpty()
+                ? Uni.createFrom().item(Map.of())
+                : httpClientService.fetchUsersByIds(ownerIds);
+
+        return owners.onItem().transform(byId -> products.stream()
+                .map(product -> new EnrichedProductResponse(product,
+                        product.ownerId() != null ? byId.get(product.ownerId()) : null))
+                .toList());
+    }
+}
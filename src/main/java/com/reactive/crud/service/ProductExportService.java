@@ -0,0 +1,186 @@
+package com.reactive.crud.service;
+
+import com.reactive.crud.dto.ExportResult;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.dto.ProductTombstone;
+import com.reactive.crud.dto.ShardedExportResult;
+import com.reactive.crud.entity.ProductDeletion;
+import com.reactive.crud.file.ExportCompression;
+import com.reactive.crud.file.ExportFormat;
+import com.reactive.crud.file.ExportManifest;
+import com.reactive.crud.file.ExportManifestStore;
+import com.reactive.crud.file.ProductExporter;
+import com.reactive.crud.repository.ProductRepository;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ApplicationScoped
+public class ProductExportService {
+
+    private static final Logger LOG = Logger.getLogger(ProductExportService.class);
+
+    @Inject
+    ProductService productService;
+
+    @Inject
+    ProductRepository productRepository;
+
+    @Inject
+    ProductExporter productExporter;
+
+    @Inject
+    ExportManifestStore manifestStore;
+
+    @ConfigProperty(name = "product.stream.fetch-size", defaultValue = "500")
+    int fetchSize;
+
+    // updated_at comes from the application clock; re-read this much before the watermark so
+    // rows committed late with an older timestamp are not skipped (consumers upsert by id)
+    @ConfigProperty(name = "product.export.delta.overlap", defaultValue = "5s")
+    Duration deltaOverlap;
+
+    // Each shard holds a pool connection for the whole export; keep this well below the pool size
+    @ConfigProperty(name = "product.export.max-shards", defaultValue = "8")
+    int maxShards;
+
+    public Uni<ExportResult> fullExport(ExportFormat format, ExportCompression compression) {
+        Watermarks watermarks = new Watermarks();
+        // Deletions logged before the scan are already reflected by the missing rows
+        return productRepository.maxDeletionSeq()
+                .invoke(watermarks.deletionSeq::set)
+                .chain(() -> productExporter.exportProducts(
+                        productService.streamAllProducts().invoke(watermarks::track), format, compression))
+                .call(result -> recordExport(result.path(), result.records(), 0, ExportManifest.Type.FULL, watermarks));
+    }
+
+    // Full export split into id ranges, each streamed over its own connection into its own part file
+    public Uni<ShardedExportResult> shardedExport(int shards, ExportFormat format, ExportCompression compression) {
+        if (shards < 1 || shards > maxShards) {
+            return Uni.createFrom().failure(new IllegalArgumentException(
+                    "shards must be between 1 and " + maxShards));
+        }
+        String name = "products_export_" + System.currentTimeMillis();
+        Watermarks watermarks = new Watermarks();
+        long start = System.nanoTime();
+
+        return productRepository.maxDeletionSeq()
+                .invoke(watermarks.deletionSeq::set)
+                .chain(productRepository::idBounds)
+                .chain(bounds -> {
+                    List<long[]> ranges = bounds == null
+                            ? List.of()
+                            : split(bounds.getItem1(), bounds.getItem2(), shards);
+                    return Multi.createFrom().range(0, ranges.size())
+                            .onItem().transformToUniAndMerge(index -> exportShard(name, index, ranges.size(),
+                                    ranges.get(index), watermarks, format, compression))
+                            .collect().asList();
+                })
+                .onItem().transform(parts -> ShardedExportResult.of(parts.stream()
+                        .sorted(Comparator.comparingInt(ShardedExportResult.Shard::index))
+                        .toList(), System.nanoTime() - start))
+                .call(result -> recordExport(
+                        Paths.get("exports", name + "_part-*." + format.extension() + compression.suffix()).toString(),
+                        result.records(), 0, ExportManifest.Type.FULL, watermarks))
+                .invoke(result -> LOG.infof("Sharded export of %d products in %d parts: %.0f records/s",
+                        result.records(), result.shards().size(), result.recordsPerSecond()));
+    }
+
+    private Uni<ShardedExportResult.Shard> exportShard(String name, int index, int count, long[] range,
+                                                       Watermarks watermarks,
+                                                       ExportFormat format, ExportCompression compression) {
+        Multi<ProductResponse> products = productRepository.streamIdRange(range[0], range[1], fetchSize)
+                .onItem().transform(ProductResponse::from)
+                .invoke(watermarks::track);
+        String partName = String.format("%s_part-%03d-of-%03d", name, index + 1, count);
+        return productExporter.exportTo(partName, products, format, compression)
+                .onItem().transform(result -> new ShardedExportResult.Shard(index, range[0], range[1], result));
+    }
+
+    // Equal-width id ranges [from, to); gaps in the id space make some shards lighter than others
+    static List<long[]> split(long minId, long maxId, int shards) {
+        long span = maxId - minId + 1;
+        long width = (span + shards - 1) / shards;
+        List<long[]> ranges = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += width) {
+            ranges.add(new long[]{from, Math.min(from + width, maxId + 1)});
+        }
+        return ranges;
+    }
+
+    // Tombstones for rows deleted since the last export, then the rows changed since then, as NDJSON.
+    // Consumers apply lines in order, so a product re-imported under a deleted id survives its own tombstone
+    public Uni<ExportResult> deltaExport(ExportCompression compression) {
+        return manifestStore.load().chain(manifest -> {
+            Watermarks watermarks = new Watermarks(manifest);
+            LocalDateTime since = manifest.updatedAtWatermark() == null
+                    ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                    : manifest.updatedAtWatermark().minus(deltaOverlap);
+            AtomicLong tombstones = new AtomicLong();
+            LOG.debugf("Delta export since %s / deletion seq %d", since, manifest.deletionWatermark());
+
+            Multi<ProductResponse> changed = productRepository.streamUpdatedSince(since, fetchSize)
+                    .onItem().transform(ProductResponse::from)
+                    .invoke(watermarks::track);
+            Multi<ProductTombstone> deleted = productRepository.streamDeletionsSince(manifest.deletionWatermark(), fetchSize)
+                    .invoke(watermarks::track)
+                    .invoke(tombstones::incrementAndGet)
+                    .onItem().transform(ProductTombstone::from);
+
+            Multi<Object> changes = Multi.createBy().concatenating().streams(
+                    deleted.onItem().castTo(Object.class), changed.onItem().castTo(Object.class));
+
+            return productExporter.export("products_delta", changes, ExportFormat.NDJSON, compression)
+                    .call(result -> recordExport(result.path(), result.records() - tombstones.get(), tombstones.get(),
+                            ExportManifest.Type.DELTA, watermarks));
+        });
+    }
+
+    private Uni<Void> recordExport(String path, long records, long tombstones,
+                                   ExportManifest.Type type, Watermarks watermarks) {
+        ExportManifest.Entry entry = new ExportManifest.Entry(path, type, records, tombstones,
+                watermarks.updatedAt.get(), watermarks.deletionSeq.get(), LocalDateTime.now());
+        return manifestStore.update(manifest -> manifest.record(entry))
+                .replaceWithVoid()
+                .invoke(() -> LOG.infof("%s export %s recorded, watermark %s", type, path, watermarks.updatedAt.get()));
+    }
+
+    // Highest updated_at / deletion seq seen while streaming; start from the previous watermarks
+    private static final class Watermarks {
+
+        private final AtomicReference<LocalDateTime> updatedAt = new AtomicReference<>();
+        private final AtomicLong deletionSeq = new AtomicLong();
+
+        Watermarks() {
+        }
+
+        Watermarks(ExportManifest manifest) {
+            updatedAt.set(manifest.updatedAtWatermark());
+            deletionSeq.set(manifest.deletionWatermark());
+        }
+
+        void track(ProductResponse product) {
+            LocalDateTime candidate = product.updatedAt();
+            if (candidate != null) {
+                updatedAt.accumulateAndGet(candidate, (current, next) ->
+                        current == null || next.isAfter(current) ? next : current);
+            }
+        }
+
+        void track(ProductDeletion deletion) {
+            deletionSeq.accumulateAndGet(deletion.seq(), Math::max);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.reactive.crud.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reactive.crud.cache.ProductCacheService;
+import com.reactive.crud.dto.ImportReport;
+import com.reactive.crud.dto.ProductRequest;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.entity.Product;
+import com.reactive.crud.file.ExportFormat;
+import com.reactive.crud.file.FileService;
+import com.reactive.crud.repository.ProductRepository;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@ApplicationScoped
+public class ProductImportService {
+
+    private static final Logger LOG = Logger.getLogger(ProductImportService.class);
+    private static final int MAX_REJECTION_SAMPLES = 20;
+
+    @Inject
+    FileService fileService;
+
+    @Inject
+    ProductRepository productRepository;
+
+    @Inject
+    ProductCacheService cacheService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Validator validator;
+
+    @ConfigProperty(name = "product.import.batch-size", defaultValue = "500")
+    int batchSize;
+
+    // Batches written in parallel, each in its own transaction
+    @ConfigProperty(name = "product.import.concurrency", defaultValue = "2")
+    int concurrency;
+
+    @ConfigProperty(name = "product.import.max-line-length", defaultValue = "65536")
+    int maxLineLength;
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+
+    // NDJSON or CSV (with header) from the exports directory; other files are rejected
+    public Uni<ImportReport> importFile(String fileName) {
+        Path path;
+        ExportFormat format;
+        try {
+            path = fileService.exportPath(fileName);
+            format = formatOf(fileName);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().failure(e);
+        }
+
+        ImportRun run = new ImportRun(fileName, format);
+        LOG.infof("Importing products from %s (%s)", path, format.param());
+
+        return fileService.readLines(path, maxLineLength)
+                .onItem().transformToIterable(run::decode)
+                .group().intoLists().of(batchSize)
+                .onItem().transformToUni(run::write).merge(concurrency)
+                .collect().last()
+                .call(() -> run.imported.get() > 0 ? productRepository.syncIdSequence() : Uni.createFrom().voidItem())
+                .onItem().transform(ignored -> run.report())
+                .invoke(report -> LOG.infof("Imported %d products from %s (%d rejected, %.0f rows/s)",
+                        report.imported(), fileName, report.rejected(), report.rowsPerSecond()));
+    }
+
+    private ExportFormat formatOf(String fileName) {
+        if (fileName.endsWith(".ndjson")) {
+            return ExportFormat.NDJSON;
+        }
+        if (fileName.endsWith(".csv")) {
+            return ExportFormat.CSV;
+        }
+        throw new IllegalArgumentException("Only uncompressed .ndjson and .csv files can be imported: " + fileName);
+    }
+
+    // State of one import; decode() is called sequentially, write() from parallel batches
+    private final class ImportRun {
+
+        private final String fileName;
+        private final ExportFormat format;
+        private final long start = System.nanoTime();
+        private final AtomicLong lines = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong invalidationRequested = new AtomicLong();
+        private final AtomicLong invalidationRemoved = new AtomicLong();
+        private final AtomicLong invalidationFailures = new AtomicLong();
+        private final List<ImportReport.Rejection> rejections = new ArrayList<>();
+        private ObjectReader csvReader;
+
+        ImportRun(String fileName, ExportFormat format) {
+            this.fileName = fileName;
+            this.format = format;
+        }
+
+        List<Product> decode(Buffer buffer) {
+            long lineNumber = lines.incrementAndGet();
+            String line = buffer.toString().strip();
+            if (line.isEmpty()) {
+                return List.of();
+            }
+            try {
+                if (format == ExportFormat.CSV && csvReader == null) {
+                    csvReader = csvReaderFor(line);
+                    return List.of();
+                }
+                ProductResponse row = format == ExportFormat.CSV
+                        ? csvReader.readValue(line)
+                        : objectMapper.readValue(line, ProductResponse.class);
+                return List.of(validated(row));
+            } catch (Exception e) {
+                reject(lineNumber, e.getMessage());
+                return List.of();
+            }
+        }
+
+        Uni<Integer> write(List<Product> batch) {
+            List<Long> ids = batch.stream()
+                    .map(Product::getId)
+                    .filter(id -> id != null)
+                    .toList();
+            return productRepository.importBatch(batch)
+                    .invoke(imported::addAndGet)
+                    // Only rows that already had an id can be in the cache
+                    .call(() -> invalidate(ids));
+        }
+
+        private Uni<Void> invalidate(List<Long> ids) {
+            invalidationRequested.addAndGet(ids.size());
+            return cacheService.deleteAll(ids)
+                    .invoke(invalidationRemoved::addAndGet)
+                    .replaceWithVoid()
+                    .onFailure().recoverWithUni(failure -> {
+                        invalidationFailures.incrementAndGet();
+                        LOG.warnf("Cache invalidation failed for %d imported products: %s", ids.size(), failure.getMessage());
+                        return Uni.createFrom().voidItem();
+                    });
+        }
+
+        private ObjectReader csvReaderFor(String header) throws Exception {
+            // Without a schema a CSV row reads as an array of its fields
+            String[] columns = csvMapper.readerFor(String[].class).readValue(header);
+            CsvSchema.Builder schema = CsvSchema.builder();
+            for (String column : columns) {
+                schema.addColumn(column.strip());
+            }
+            return csvMapper.readerFor(ProductResponse.class).with(schema.build());
+        }
+
+        private Product validated(ProductResponse row) {
+            ProductRequest request = new ProductRequest(row.name(), row.description(), row.price(), row.ownerId());
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                throw new IllegalArgumentException(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+            Product product = new Product();
+            product.setId(row.id());
+            product.setName(request.name());
+            product.setDescription(request.description());
+            product.setPrice(request.price());
+            product.setOwnerId(request.ownerId());
+            return product;
+        }
+
+        private void reject(long lineNumber, String reason) {
+            rejected.incrementAndGet();
+            synchronized (rejections) {
+                if (rejections.size() < MAX_REJECTION_SAMPLES) {
+                    rejections.add(new ImportReport.Rejection(lineNumber, reason));
+                }
+            }
+        }
+
+        ImportReport report() {
+            long durationNanos = System.nanoTime() - start;
+            double seconds = Math.max(durationNanos, 1) / 1_000_000_000.0;
+            synchronized (rejections) {
+                return new ImportReport(fileName, format.param(), lines.get(), imported.get(), rejected.get(),
+                        List.copyOf(rejections), durationNanos / 1_000_000, imported.get() / seconds,
+                        new ImportReport.CacheInvalidation(invalidationRequested.get(), invalidationRemoved.get(),
+                                invalidationFailures.get()));
+            }
+        }
+    }
+}
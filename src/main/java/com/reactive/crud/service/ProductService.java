@@ -1,18 +1,30 @@
 package com.reactive.crud.service;
 
 import com.reactive.crud.cache.ProductCacheService;
+import com.reactive.crud.deadline.DeadlineExceededException;
+import com.reactive.crud.deadline.RequestDeadline;
+import com.reactive.crud.dto.ProductEventDto;
+import com.reactive.crud.dto.ProductLookup;
 import com.reactive.crud.dto.ProductRequest;
 import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.entity.CatalogVersion;
 import com.reactive.crud.entity.Product;
-import com.reactive.crud.mail.MailService;
+import com.reactive.crud.mail.MailDispatcher;
 import com.reactive.crud.messaging.ProductEventProducer;
 import com.reactive.crud.repository.ProductRepository;
+import com.reactive.crud.service.SideEffectFanOut.SideEffect;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
 @ApplicationScoped
 public class ProductService {
 
@@ -29,7 +41,24 @@ public class ProductService {
     ProductEventProducer eventProducer;
 
     @Inject
-    MailService mailService;
+    MailDispatcher mailDispatcher;
+
+    @Inject
+    SideEffectFanOut sideEffects;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "product.stream.fetch-size", defaultValue = "500")
+    int streamFetchSize;
+
+    // A lookup by id slower than this is treated as a database failure and may be answered from the shadow copy
+    @ConfigProperty(name = "product.read.db-timeout", defaultValue = "2s")
+    Duration dbReadTimeout;
+
+    // Budget for the extra Redis read once the database has already failed
+    @ConfigProperty(name = "product.read.shadow-timeout", defaultValue = "200ms")
+    Duration shadowReadTimeout;
 
     public Multi<ProductResponse> getAllProducts() {
         LOG.debug("Fetching all products");
@@ -37,20 +66,43 @@ public class ProductService {
                 .onItem().transform(ProductResponse::from);
     }
 
+    public Multi<ProductResponse> streamAllProducts() {
+        LOG.debugf("Streaming all products (fetch size %d)", streamFetchSize);
+        return productRepository.streamAll(streamFetchSize)
+                .onItem().transform(ProductResponse::from);
+    }
+
+    public Uni<CatalogVersion> getCatalogVersion() {
+        return RequestDeadline.current().bound("repository.catalogVersion", productRepository.catalogVersion());
+    }
+
     public Uni<ProductResponse> getProductById(Long id) {
+        return lookupProductById(id)
+                .onItem().ifNotNull().transform(ProductLookup::product);
+    }
+
+    // Uni-returning calls below run with the time left on the request's deadline (none outside HTTP requests);
+    // writes only check it before they start, so a committed change always reaches its side effects
+    public Uni<ProductLookup> lookupProductById(Long id) {
         LOG.debugf("Fetching product with id: %d", id);
+        RequestDeadline deadline = RequestDeadline.current();
 
         // Try cache first
-        return cacheService.get(id)
+        return deadline.bound("cache.get", cacheService.get(id))
+                .onItem().ifNotNull().transform(ProductLookup::fresh)
                 .onItem().ifNull().switchTo(() -> {
                     // Cache miss - fetch from DB
-                    return productRepository.findById(id)
+                    Uni<Product> dbRead = productRepository.findById(id)
+                            .ifNoItem().after(dbReadTimeout).fail();
+                    return deadline.bound("repository.findById", dbRead)
                             .onItem().ifNotNull().transformToUni(product -> {
                                 ProductResponse response = ProductResponse.from(product);
-                                // Update cache
-                                return cacheService.set(id, response)
-                                        .replaceWith(response);
-                            });
+                                // Update cache; out of time, answer with the row we already have
+                                return deadline.bound("cache.set", cacheService.set(id, response))
+                                        .onFailure(DeadlineExceededException.class).recoverWithNull()
+                                        .replaceWith(ProductLookup.fresh(response));
+                            })
+                            .onFailure(ProductService::degradable).recoverWithUni(failure -> shadowRead(id, failure));
                 });
     }
 
@@ -61,87 +113,81 @@ public class ProductService {
         product.setName(request.name());
         product.setDescription(request.description());
         product.setPrice(request.price());
+        product.setOwnerId(request.ownerId());
+        RequestDeadline deadline = RequestDeadline.current();
 
-        return productRepository.create(product)
+        return deadline.admit("repository.create", productRepository.create(product))
                 .onItem().transform(ProductResponse::from)
-                .call(response ->
-                        // Cache the new product
-                        cacheService.set(response.id(), response)
-                                .replaceWithVoid()
-                )
-                .call(response ->
-                        // Send Kafka event (non-blocking)
-                        eventProducer.sendProductCreated(response.id(), response.name())
-                                .onFailure().recoverWithNull()
-                )
-                .call(response ->
-                        // Send email notification (non-blocking)
-                        mailService.sendProductCreatedNotification(response.id(), response.name(), ADMIN_EMAIL)
-                                .onFailure().recoverWithNull()
-                )
+                .call(response -> sideEffects.run(deadline,
+                        SideEffect.of("cache", () -> cacheService.set(response.id(), response)),
+                        SideEffect.of("event", () -> eventProducer.sendProductCreated(response.id(), response.name())),
+                        SideEffect.of("snapshot", () -> eventProducer.publishSnapshot(response)),
+                        SideEffect.of("mail", () -> dispatchMail(ProductEventDto.EventType.CREATED, response.id(), response.name()))
+                ))
                 .invoke(response -> LOG.infof("Product created with id: %d", response.id()));
     }
 
     public Uni<ProductResponse> updateProduct(Long id, ProductRequest request) {
+        return updateProduct(id, request, null);
+    }
+
+    // precondition is checked against the stored row; the write is then applied only if that row is still unchanged
+    public Uni<ProductResponse> updateProduct(Long id, ProductRequest request, Predicate<ProductResponse> precondition) {
         LOG.debugf("Updating product with id: %d", id);
+        RequestDeadline deadline = RequestDeadline.current();
 
-        return productRepository.findById(id)
+        return deadline.bound("repository.findById", productRepository.findById(id))
                 .onItem().ifNotNull().transformToUni(existingProduct -> {
+                    LocalDateTime seenUpdatedAt = existingProduct.getUpdatedAt();
+                    if (precondition != null && !precondition.test(ProductResponse.from(existingProduct))) {
+                        return Uni.createFrom().failure(new StaleProductException(id));
+                    }
                     existingProduct.setName(request.name());
                     existingProduct.setDescription(request.description());
                     existingProduct.setPrice(request.price());
-
-                    return productRepository.update(existingProduct)
+                    if (request.ownerId() != null) {
+                        existingProduct.setOwnerId(request.ownerId());
+                    }
+
+                    Uni<Product> update = precondition == null
+                            ? productRepository.update(existingProduct)
+                            : productRepository.update(existingProduct, seenUpdatedAt)
+                                    .onItem().ifNull().failWith(() -> new StaleProductException(id));
+                    return deadline.admit("repository.update", update)
                             .onItem().transform(ProductResponse::from)
-                            .call(response ->
-                                    // Update cache
-                                    cacheService.set(id, response)
-                                            .replaceWithVoid()
-                            )
-                            .call(response ->
-                                    // Send Kafka event (non-blocking)
-                                    eventProducer.sendProductUpdated(response.id(), response.name())
-                                            .onFailure().recoverWithNull()
-                            )
-                            .call(response ->
-                                    // Send email notification (non-blocking)
-                                    mailService.sendProductUpdatedNotification(response.id(), response.name(), ADMIN_EMAIL)
-                                            .onFailure().recoverWithNull()
-                            )
+                            .call(response -> sideEffects.run(deadline,
+                                    SideEffect.of("cache", () -> cacheService.set(id, response)),
+                                    SideEffect.of("event", () -> eventProducer.sendProductUpdated(response.id(), response.name())),
+                                    SideEffect.of("snapshot", () -> eventProducer.publishSnapshot(response)),
+                                    SideEffect.of("mail", () -> dispatchMail(ProductEventDto.EventType.UPDATED, response.id(), response.name()))
+                            ))
                             .invoke(response -> LOG.infof("Product updated with id: %d", response.id()));
                 });
     }
 
     public Uni<Boolean> deleteProduct(Long id) {
+        return deleteProduct(id, null);
+    }
+
+    public Uni<Boolean> deleteProduct(Long id, Predicate<ProductResponse> precondition) {
         LOG.debugf("Deleting product with id: %d", id);
+        RequestDeadline deadline = RequestDeadline.current();
 
         // First get the product name for events
-        return productRepository.findById(id)
+        return deadline.bound("repository.findById", productRepository.findById(id))
                 .onItem().ifNotNull().transformToUni(product ->
-                        productRepository.delete(id)
-                                .call(deleted -> {
-                                    if (deleted) {
-                                        // Delete from cache
-                                        return cacheService.delete(id)
-                                                .replaceWithVoid();
-                                    }
-                                    return Uni.createFrom().voidItem();
-                                })
-                                .call(deleted -> {
-                                    if (deleted) {
-                                        // Send Kafka event (non-blocking)
-                                        return eventProducer.sendProductDeleted(product.getId(), product.getName())
-                                                .onFailure().recoverWithNull();
-                                    }
-                                    return Uni.createFrom().voidItem();
-                                })
+                        deadline.admit("repository.delete", delete(product, precondition))
                                 .call(deleted -> {
-                                    if (deleted) {
-                                        // Send email notification (non-blocking)
-                                        return mailService.sendProductDeletedNotification(product.getId(), product.getName(), ADMIN_EMAIL)
-                                                .onFailure().recoverWithNull();
+                                    if (!deleted) {
+                                        return Uni.createFrom().voidItem();
                                     }
-                                    return Uni.createFrom().voidItem();
+                                    return sideEffects.run(deadline,
+                                            SideEffect.of("cache", () -> cacheService.delete(id)),
+                                            SideEffect.of("event", () -> eventProducer.sendProductDeleted(product.getId(), product.getName())),
+                                            // Tombstone so compaction drops the snapshot
+                                            SideEffect.of("snapshot", () -> eventProducer.publishTombstone(id)),
+                                            SideEffect.of("mail", () -> dispatchMail(ProductEventDto.EventType.DELETED, product.getId(), product.getName()))
+                                    );
                                 })
                                 .invoke(deleted -> {
                                     if (deleted) {
@@ -153,4 +199,43 @@ public class ProductService {
                 )
                 .onItem().ifNull().continueWith(false);
     }
+
+    private Uni<Boolean> delete(Product product, Predicate<ProductResponse> precondition) {
+        if (precondition == null) {
+            return productRepository.delete(product.getId());
+        }
+        if (!precondition.test(ProductResponse.from(product))) {
+            return Uni.createFrom().failure(new StaleProductException(product.getId()));
+        }
+        return productRepository.delete(product.getId(), product.getUpdatedAt())
+                .onItem().transformToUni(deleted -> deleted
+                        ? Uni.createFrom().item(true)
+                        : Uni.createFrom().failure(new StaleProductException(product.getId())));
+    }
+
+    // Nobody is waiting for an abandoned request, so it is not worth another Redis call
+    private static boolean degradable(Throwable failure) {
+        return !(failure instanceof DeadlineExceededException deadlineExceeded && deadlineExceeded.abandoned());
+    }
+
+    // Degraded read: the database failed or was too slow, answer with the shadow copy if Redis has one
+    private Uni<ProductLookup> shadowRead(Long id, Throwable dbFailure) {
+        return cacheService.getShadow(id)
+                .ifNoItem().after(shadowReadTimeout).fail()
+                .onFailure().transform(ignored -> dbFailure)
+                .onItem().transformToUni(shadow -> {
+                    if (shadow == null) {
+                        return Uni.createFrom().failure(dbFailure);
+                    }
+                    LOG.warnf("Serving stale product %d after database failure: %s", id, dbFailure.getMessage());
+                    registry.counter("product.cache.stale.served").increment();
+                    return Uni.createFrom().item(ProductLookup.stale(shadow, System.currentTimeMillis()));
+                });
+    }
+
+    private Uni<Boolean> dispatchMail(ProductEventDto.EventType eventType, Long productId, String productName) {
+        // Only enqueues; MailDispatcher sends off the request path
+        return Uni.createFrom().item(() ->
+                mailDispatcher.dispatchProductNotification(eventType, productId, productName, ADMIN_EMAIL));
+    }
 }
@@ -0,0 +1,26 @@
+package com.reactive.crud.service;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+@ConfigMapping(prefix = "product.side-effects")
+public interface SideEffectConfig {
+
+    @WithDefault("AWAIT")
+    SideEffectFanOut.Policy defaultPolicy();
+
+    @WithDefault("5s")
+    Duration defaultTimeout();
+
+    Map<String, Effect> effect();
+
+    interface Effect {
+        Optional<SideEffectFanOut.Policy> policy();
+
+        Optional<Duration> timeout();
+    }
+}
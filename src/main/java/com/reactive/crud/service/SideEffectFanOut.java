@@ -0,0 +1,118 @@
+package com.reactive.crud.service;
+
+import com.reactive.crud.deadline.RequestDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.TimeoutException;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+@ApplicationScoped
+public class SideEffectFanOut {
+
+    private static final Logger LOG = Logger.getLogger(SideEffectFanOut.class);
+
+    public enum Policy {
+        // Run in parallel with the other awaited effects; the write answers after the slowest one
+        AWAIT,
+        // Start now, never awaited; failures and timeouts are logged and counted
+        DETACHED,
+        // Start after the awaited effects finished, one after another, never awaited
+        DEFERRED
+    }
+
+    public record SideEffect(String name, Supplier<Uni<?>> action) {
+        public static SideEffect of(String name, Supplier<Uni<?>> action) {
+            return new SideEffect(name, action);
+        }
+    }
+
+    @Inject
+    SideEffectConfig config;
+
+    @Inject
+    MeterRegistry registry;
+
+    public Uni<Void> run(SideEffect... effects) {
+        return run(RequestDeadline.NONE, effects);
+    }
+
+    // The request waits for awaited effects at most the time it has left. Every effect keeps its own timeout:
+    // the write has committed, so the change must still propagate after the request stops waiting
+    public Uni<Void> run(RequestDeadline deadline, SideEffect... effects) {
+        List<Uni<Void>> awaited = new ArrayList<>();
+        List<SideEffect> deferred = new ArrayList<>();
+
+        for (SideEffect effect : effects) {
+            switch (policyOf(effect)) {
+                case AWAIT -> awaited.add(awaitWithin(deadline, supervised(effect, Policy.AWAIT)));
+                case DETACHED -> supervised(effect, Policy.DETACHED).subscribe().with(ignored -> { });
+                case DEFERRED -> deferred.add(effect);
+            }
+        }
+
+        Uni<Void> awaitAll = awaited.isEmpty()
+                ? Uni.createFrom().voidItem()
+                : Uni.combine().all().unis(awaited).discardItems();
+
+        return awaitAll.invoke(() -> {
+            if (!deferred.isEmpty()) {
+                Multi.createFrom().iterable(deferred)
+                        .onItem().transformToUniAndConcatenate(effect -> supervised(effect, Policy.DEFERRED))
+                        .subscribe().with(ignored -> { });
+            }
+        });
+    }
+
+    // Started right away; giving up on the wait does not cancel the effect itself
+    private static Uni<Void> awaitWithin(RequestDeadline deadline, Uni<Void> effect) {
+        if (deadline == RequestDeadline.NONE) {
+            return effect;
+        }
+        Uni<Void> running = effect.memoize().indefinitely();
+        running.subscribe().with(ignored -> { });
+        return running.ifNoItem().after(deadline.remaining()).recoverWithUni(Uni.createFrom().voidItem());
+    }
+
+    private Uni<Void> supervised(SideEffect effect, Policy policy) {
+        Duration timeout = timeoutOf(effect);
+        return Uni.createFrom().deferred(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return Uni.createFrom().deferred(effect.action())
+                    .ifNoItem().after(timeout).fail()
+                    .onItemOrFailure().invoke((item, failure) -> {
+                        String outcome = failure == null ? "success"
+                                : failure instanceof TimeoutException ? "timeout" : "failure";
+                        sample.stop(registry.timer("product.side.effect",
+                                "effect", effect.name(), "policy", policy.name(), "outcome", outcome));
+                        if (failure != null) {
+                            LOG.warnf("Side effect %s (%s) failed: %s", effect.name(), policy, failure.getMessage());
+                        }
+                    })
+                    .onFailure().recoverWithNull()
+                    .replaceWithVoid();
+        });
+    }
+
+    private Policy policyOf(SideEffect effect) {
+        SideEffectConfig.Effect effectConfig = config.effect().get(effect.name());
+        return effectConfig != null
+                ? effectConfig.policy().orElse(config.defaultPolicy())
+                : config.defaultPolicy();
+    }
+
+    private Duration timeoutOf(SideEffect effect) {
+        SideEffectConfig.Effect effectConfig = config.effect().get(effect.name());
+        return effectConfig != null
+                ? effectConfig.timeout().orElse(config.defaultTimeout())
+                : config.defaultTimeout();
+    }
+}
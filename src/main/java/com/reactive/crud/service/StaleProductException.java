@@ -0,0 +1,9 @@
+package com.reactive.crud.service;
+
+// The product changed (or disappeared) after the version the caller based its write on
+public class StaleProductException extends RuntimeException {
+
+    public StaleProductException(Long id) {
+        super("Product " + id + " was modified concurrently");
+    }
+}
@@ -4,16 +4,103 @@ CREATE TABLE IF NOT EXISTS products (
     name VARCHAR(255) NOT NULL,
     description TEXT,
     price NUMERIC(10, 2) NOT NULL CHECK (price >= 0),
+    owner_id BIGINT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Owning external user (jsonplaceholder /users id), added after the initial schema
+ALTER TABLE products ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
 -- Create index on name for faster searches
 CREATE INDEX IF NOT EXISTS idx_products_name ON products(name);
 
 -- Insert some sample data for testing
-INSERT INTO products (name, description, price) VALUES
-    ('Laptop', 'High-performance laptop for developers', 1299.99),
-    ('Mouse', 'Wireless ergonomic mouse', 29.99),
-    ('Keyboard', 'Mechanical keyboard with RGB lighting', 89.99)
+INSERT INTO products (name, description, price, owner_id) VALUES
+    ('Laptop', 'High-performance laptop for developers', 1299.99, 1),
+    ('Mouse', 'Wireless ergonomic mouse', 29.99, 2),
+    ('Keyboard', 'Mechanical keyboard with RGB lighting', 89.99, 1)
 ON CONFLICT DO NOTHING;
+
+-- Incremental exports stream rows changed since the last export's updated_at watermark
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products(updated_at, id);
+
+-- Deletion log read by incremental exports to emit tombstones
+CREATE TABLE IF NOT EXISTS product_deletions (
+    seq BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE OR REPLACE FUNCTION log_product_deletion() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO product_deletions (product_id) VALUES (OLD.id);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_products_deletion_log ON products;
+CREATE TRIGGER trg_products_deletion_log
+    AFTER DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION log_product_deletion();
+
+-- Single-row catalog version behind the GET /api/products ETag. Bumped by the writing statement inside its
+-- transaction, so a new version only becomes visible together with the rows it describes, and it does not
+-- depend on any application clock. Writers serialize on this row until they commit.
+CREATE TABLE IF NOT EXISTS catalog_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL,
+    product_count BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+);
+
+INSERT INTO catalog_version (id, version, product_count)
+SELECT 1, 1, COUNT(*) FROM products
+ON CONFLICT (id) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION bump_catalog_version() RETURNS TRIGGER AS $$
+DECLARE
+    affected BIGINT := 0;
+BEGIN
+    IF TG_OP = 'TRUNCATE' THEN
+        UPDATE catalog_version
+        SET version = version + 1, product_count = 0, updated_at = clock_timestamp()
+        WHERE id = 1;
+        RETURN NULL;
+    END IF;
+    SELECT COUNT(*) INTO affected FROM changed_rows;
+    -- Statements that matched nothing (e.g. a failed conditional update) keep the version
+    IF affected = 0 THEN
+        RETURN NULL;
+    END IF;
+    UPDATE catalog_version
+    SET version = version + 1,
+        product_count = product_count + CASE TG_OP WHEN 'INSERT' THEN affected WHEN 'DELETE' THEN -affected ELSE 0 END,
+        updated_at = clock_timestamp()
+    WHERE id = 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_products_version_insert ON products;
+CREATE TRIGGER trg_products_version_insert
+    AFTER INSERT ON products
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version();
+
+DROP TRIGGER IF EXISTS trg_products_version_update ON products;
+CREATE TRIGGER trg_products_version_update
+    AFTER UPDATE ON products
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version();
+
+DROP TRIGGER IF EXISTS trg_products_version_delete ON products;
+CREATE TRIGGER trg_products_version_delete
+    AFTER DELETE ON products
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version();
+
+DROP TRIGGER IF EXISTS trg_products_version_truncate ON products;
+CREATE TRIGGER trg_products_version_truncate
+    AFTER TRUNCATE ON products
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_catalog_version();
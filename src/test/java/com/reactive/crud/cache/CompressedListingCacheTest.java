@@ -0,0 +1,103 @@
+package com.reactive.crud.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reactive.crud.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedListingCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CompressedListingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompressedListingCache();
+        cache.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        cache.registry = new SimpleMeterRegistry();
+        cache.minResponseSize = 1024;
+        cache.init();
+    }
+
+    @Test
+    void shouldGzipLargeListingsOncePerVersion() throws IOException {
+        // Given
+        List<ProductResponse> products = products(50);
+
+        // When
+        CompressedListingCache.Body first = cache.get("v1", () -> load(products)).await().indefinitely();
+        CompressedListingCache.Body second = cache.get("v1", () -> load(products)).await().indefinitely();
+
+        // Then
+        assertThat(first.compressed()).isTrue();
+        assertThat(first.gzip().length).isLessThan(first.json().length);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(first.gzip())).readAllBytes()).isEqualTo(first.json());
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRebuildWhenTheCatalogVersionChanges() {
+        // Given
+        cache.get("v1", () -> load(products(50))).await().indefinitely();
+
+        // When
+        CompressedListingCache.Body body = cache.get("v2", () -> load(products(1))).await().indefinitely();
+
+        // Then - a single product stays below the threshold and is not compressed
+        assertThat(body.compressed()).isFalse();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotKeepFailedBuilds() {
+        // Given
+        assertThatThrownBy(() -> cache.get("v1", () -> Uni.createFrom().failure(new IllegalStateException("db down")))
+                .await().indefinitely())
+                .isInstanceOf(IllegalStateException.class);
+
+        // When
+        CompressedListingCache.Body body = cache.get("v1", () -> load(products(50))).await().indefinitely();
+
+        // Then
+        assertThat(body.compressed()).isTrue();
+    }
+
+    @Test
+    void shouldNegotiateGzipFromAcceptEncoding() {
+        assertThat(CompressedListingCache.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(CompressedListingCache.acceptsGzip("br;q=1.0, *;q=0.5")).isTrue();
+        assertThat(CompressedListingCache.acceptsGzip("br, gzip;q=0")).isFalse();
+        assertThat(CompressedListingCache.acceptsGzip("identity")).isFalse();
+        assertThat(CompressedListingCache.acceptsGzip(null)).isFalse();
+    }
+
+    private Uni<List<ProductResponse>> load(List<ProductResponse> products) {
+        loads.incrementAndGet();
+        return Uni.createFrom().item(products);
+    }
+
+    private static List<ProductResponse> products(int count) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new ProductResponse(id, "Product " + id, "Description of product " + id,
+                        new BigDecimal("19.99"), now, now))
+                .toList();
+    }
+}
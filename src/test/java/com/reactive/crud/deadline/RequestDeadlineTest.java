@@ -0,0 +1,177 @@
+package com.reactive.crud.deadline;
+
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+class RequestDeadlineTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    @Test
+    void shouldAbandonCallThatOutlivesTheDeadline() {
+        // Given
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(50), () -> false);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Uni<String> slowCall = Uni.createFrom().<String>nothing().onCancellation().invoke(() -> cancelled.set(true));
+
+        // When & Then
+        assertThatThrownBy(() -> deadline.bound("cache.get", slowCall).await().atMost(Duration.ofSeconds(5)))
+                .isInstanceOfSatisfying(DeadlineExceededException.class, e -> {
+                    assertThat(e.operation()).isEqualTo("cache.get");
+                    assertThat(e.abandoned()).isFalse();
+                });
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void shouldLetWritesThatStartedInTimeFinishAfterTheDeadline() {
+        // Given - the INSERT is already on the wire when the 50ms deadline fires
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(50), () -> false);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Uni<String> write = Uni.createFrom().item("created").onItem().delayIt().by(Duration.ofMillis(200))
+                .onCancellation().invoke(() -> cancelled.set(true));
+
+        // When
+        String result = deadline.admit("repository.create", write).await().atMost(Duration.ofSeconds(5));
+
+        // Then - the committed row is reported instead of a 504 that would invite a duplicate retry
+        assertThat(result).isEqualTo("created");
+        assertThat(cancelled).isFalse();
+    }
+
+    @Test
+    void shouldNotStartWritesOnceTheDeadlinePassed() {
+        // Given
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(100), () -> false, nanos::get);
+        nanos.addAndGet(Duration.ofMillis(150).toNanos());
+
+        // When & Then
+        assertThatThrownBy(() -> deadline.admit("repository.create", call()).await().indefinitely())
+                .isInstanceOfSatisfying(DeadlineExceededException.class, e -> assertThat(e.abandoned()).isFalse());
+        assertThat(subscriptions).hasValue(0);
+    }
+
+    @Test
+    void shouldNotStartCallsOnceTheDeadlinePassed() {
+        // Given
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(100), () -> false, nanos::get);
+        nanos.addAndGet(Duration.ofMillis(150).toNanos());
+
+        // When & Then
+        assertThat(deadline.remaining()).isZero();
+        assertThatThrownBy(() -> deadline.bound("repository.findById", call()).await().indefinitely())
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(subscriptions).hasValue(0);
+    }
+
+    @Test
+    void shouldNotStartCallsForAbandonedRequests() {
+        // Given
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofSeconds(5), () -> true);
+
+        // When & Then
+        assertThatThrownBy(() -> deadline.bound("repository.create", call()).await().indefinitely())
+                .isInstanceOfSatisfying(DeadlineExceededException.class, e -> assertThat(e.abandoned()).isTrue());
+        assertThat(subscriptions).hasValue(0);
+    }
+
+    @Test
+    void shouldCapTimeoutsToTheTimeLeft() {
+        // Given
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(800), () -> false, nanos::get);
+        nanos.addAndGet(Duration.ofMillis(500).toNanos());
+
+        // When & Then
+        assertThat(deadline.cap(Duration.ofSeconds(2))).isEqualTo(Duration.ofMillis(300));
+        assertThat(deadline.cap(Duration.ofMillis(100))).isEqualTo(Duration.ofMillis(100));
+        assertThat(RequestDeadline.NONE.cap(Duration.ofSeconds(2))).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void shouldLeaveCallsOutsideRequestsUnbounded() {
+        // When
+        RequestDeadline deadline = RequestDeadline.current();
+
+        // Then
+        assertThat(deadline).isSameAs(RequestDeadline.NONE);
+        assertThat(deadline.bound("cache.get", call()).await().indefinitely()).isEqualTo("value");
+    }
+
+    @Test
+    void shouldPreferClientTimeoutCappedAtMaxOverRouteDefaults() {
+        // Given
+        // Routes are built first: stubbing them inside thenReturn(...) would nest two stubbings
+        Map<String, DeadlineConfig.Route> routes = Map.of(
+                "products", route("/api/products", null, Duration.ofSeconds(3)),
+                "products-write", route("/api/products", Set.of("POST"), Duration.ofSeconds(5)));
+        DeadlineRouteHandler handler = new DeadlineRouteHandler();
+        handler.config = Mockito.mock(DeadlineConfig.class);
+        when(handler.config.max()).thenReturn(Duration.ofSeconds(30));
+        when(handler.config.route()).thenReturn(routes);
+
+        // When & Then
+        assertThat(handler.timeoutOf("250", "/api/products/1", "GET")).isEqualTo(Duration.ofMillis(250));
+        assertThat(handler.timeoutOf("600000", "/api/products/1", "GET")).isEqualTo(Duration.ofSeconds(30));
+        assertThat(handler.timeoutOf(null, "/api/products/1", "GET")).isEqualTo(Duration.ofSeconds(3));
+        assertThat(handler.timeoutOf(null, "/api/products", "POST")).isEqualTo(Duration.ofSeconds(5));
+        assertThat(handler.timeoutOf(null, "/api/other", "GET")).isNull();
+        assertThatThrownBy(() -> handler.timeoutOf("-5", "/api/products", "GET"))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void shouldPreferRouteListingMethodsOnTheSamePath() {
+        // Given - both iteration orders of the config map
+        DeadlineConfig.Route all = route("/api/products", null, Duration.ofSeconds(3));
+        DeadlineConfig.Route writes = route("/api/products", Set.of("POST", "PUT", "DELETE"), Duration.ofSeconds(5));
+        for (Map<String, DeadlineConfig.Route> routes : List.of(orderedRoutes("products", all, "products-write", writes),
+                orderedRoutes("products-write", writes, "products", all))) {
+            DeadlineRouteHandler handler = new DeadlineRouteHandler();
+            handler.config = Mockito.mock(DeadlineConfig.class);
+            when(handler.config.route()).thenReturn(routes);
+
+            // When & Then
+            assertThat(handler.timeoutOf(null, "/api/products/1", "PUT")).isEqualTo(Duration.ofSeconds(5));
+            assertThat(handler.timeoutOf(null, "/api/products/1", "GET")).isEqualTo(Duration.ofSeconds(3));
+        }
+    }
+
+    private static Map<String, DeadlineConfig.Route> orderedRoutes(String firstName, DeadlineConfig.Route first,
+                                                                   String secondName, DeadlineConfig.Route second) {
+        Map<String, DeadlineConfig.Route> routes = new LinkedHashMap<>();
+        routes.put(firstName, first);
+        routes.put(secondName, second);
+        return routes;
+    }
+
+    private Uni<String> call() {
+        return Uni.createFrom().item(() -> {
+            subscriptions.incrementAndGet();
+            return "value";
+        });
+    }
+
+    private static DeadlineConfig.Route route(String path, Set<String> methods, Duration timeout) {
+        DeadlineConfig.Route route = Mockito.mock(DeadlineConfig.Route.class);
+        when(route.path()).thenReturn(path);
+        when(route.methods()).thenReturn(Optional.ofNullable(methods));
+        when(route.timeout()).thenReturn(timeout);
+        return route;
+    }
+}
@@ -0,0 +1,86 @@
+package com.reactive.crud.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportManifestStoreTest {
+
+    private static final Path MANIFEST = Path.of("exports", "manifest.json");
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private Vertx vertx;
+    private ExportManifestStore store;
+    private byte[] existingManifest;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The store works on the real exports/manifest.json: keep whatever a local run left there
+        existingManifest = Files.exists(MANIFEST) ? Files.readAllBytes(MANIFEST) : null;
+        Files.deleteIfExists(MANIFEST);
+
+        vertx = Vertx.vertx();
+        FileService fileService = new FileService();
+        fileService.vertx = vertx;
+        store = new ExportManifestStore();
+        store.vertx = vertx;
+        store.fileService = fileService;
+        store.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.closeAndAwait();
+        if (existingManifest != null) {
+            Files.write(MANIFEST, existingManifest);
+        } else {
+            Files.deleteIfExists(MANIFEST);
+        }
+    }
+
+    @Test
+    void shouldKeepEveryEntryOfConcurrentUpdates() {
+        // When - twenty exports finish at the same time, in no particular order
+        Multi.createFrom().range(0, 20)
+                .onItem().transformToUniAndMerge(i -> store.update(manifest -> manifest.record(entry(i))))
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(30));
+
+        // Then
+        ExportManifest manifest = store.load().await().atMost(Duration.ofSeconds(5));
+        assertThat(manifest.exports()).hasSize(20);
+        assertThat(manifest.updatedAtWatermark()).isEqualTo(WATERMARK.plusMinutes(19));
+        assertThat(manifest.deletionWatermark()).isEqualTo(19);
+    }
+
+    @Test
+    void shouldNotMoveWatermarksBackwards() {
+        // Given - a newer export was recorded first
+        store.update(manifest -> manifest.record(entry(10))).await().atMost(Duration.ofSeconds(5));
+
+        // When - an export that started earlier finishes later
+        ExportManifest updated = store.update(manifest -> manifest.record(entry(3)))
+                .await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(updated.updatedAtWatermark()).isEqualTo(WATERMARK.plusMinutes(10));
+        assertThat(updated.deletionWatermark()).isEqualTo(10);
+        assertThat(updated.exports()).hasSize(2);
+    }
+
+    private static ExportManifest.Entry entry(int i) {
+        return new ExportManifest.Entry("exports/products_delta_" + i + ".ndjson", ExportManifest.Type.DELTA,
+                1, 0, WATERMARK.plusMinutes(i), i, WATERMARK);
+    }
+}
@@ -0,0 +1,162 @@
+package com.reactive.crud.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.luben.zstd.ZstdInputStream;
+import com.reactive.crud.dto.ExportResult;
+import com.reactive.crud.dto.ProductResponse;
+import io.smallrye.mutiny.Multi;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductExporterTest {
+
+    private Vertx vertx;
+    private ObjectMapper objectMapper;
+    private ProductExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        vertx = Vertx.vertx();
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        FileService fileService = new FileService();
+        fileService.vertx = vertx;
+        exporter = new ProductExporter();
+        exporter.vertx = vertx;
+        exporter.fileService = fileService;
+        exporter.objectMapper = objectMapper;
+        exporter.chunkSize = 4096;
+    }
+
+    @AfterEach
+    void tearDown() {
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void shouldStreamProductsIntoAValidJsonArray() throws Exception {
+        // Given - a catalog much larger than one chunk
+        Multi<ProductResponse> products = products(10_000);
+
+        // When
+        ExportResult result = exporter.exportProducts(products, ExportFormat.JSON, ExportCompression.NONE).await().atMost(Duration.ofSeconds(30));
+
+        // Then
+        Path file = Path.of(result.path());
+        try {
+            assertThat(result.records()).isEqualTo(10_000);
+            assertThat(result.bytes()).isEqualTo(Files.size(file));
+            ProductResponse[] written = objectMapper.readValue(file.toFile(), ProductResponse[].class);
+            assertThat(written).hasSize(10_000);
+            assertThat(written[9_999].id()).isEqualTo(10_000L);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldWriteGzippedNdjson() throws Exception {
+        // When
+        ExportResult result = exporter.exportProducts(products(5_000), ExportFormat.NDJSON, ExportCompression.GZIP)
+                .await().atMost(Duration.ofSeconds(30));
+
+        // Then
+        Path file = Path.of(result.path());
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            assertThat(lines).hasSize(5_000);
+            assertThat(objectMapper.readValue(lines.get(0), ProductResponse.class).id()).isEqualTo(1L);
+            assertThat(result.path()).endsWith(".ndjson.gz");
+            assertThat(result.bytes()).isEqualTo(Files.size(file)).isLessThan(result.uncompressedBytes());
+            assertThat(result.recordsPerSecond()).isPositive();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldWriteZstdCompressedCsvWithHeader() throws Exception {
+        // When
+        ExportResult result = exporter.exportProducts(products(1_000), ExportFormat.CSV, ExportCompression.ZSTD)
+                .await().atMost(Duration.ofSeconds(30));
+
+        // Then
+        Path file = Path.of(result.path());
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new ZstdInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            assertThat(lines).hasSize(1_001);
+            assertThat(lines.get(0)).isEqualTo("id,name,description,price,ownerId,createdAt,updatedAt");
+            assertThat(lines.get(1)).startsWith("1,\"Product 1\",\"Description 1\",1,");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldRemovePartialFileWhenTheSourceFails() {
+        // Given
+        int filesBefore = exportFileCount();
+        Multi<ProductResponse> failing = Multi.createBy().concatenating().streams(
+                Multi.createFrom().item(new ProductResponse(1L, "A", null, BigDecimal.ONE, null, null)),
+                Multi.createFrom().failure(new IllegalStateException("cursor closed")));
+
+        // When & Then
+        assertThatThrownBy(() -> exporter.exportProducts(failing, ExportFormat.NDJSON, ExportCompression.GZIP).await().atMost(Duration.ofSeconds(10)))
+                .hasMessageContaining("cursor closed");
+        assertThat(exportFileCount()).isEqualTo(filesBefore);
+    }
+
+    @Test
+    void shouldEncodeGzippedJsonChunksWithoutAFile() throws Exception {
+        // Given
+        int filesBefore = exportFileCount();
+
+        // When
+        List<Buffer> chunks = exporter.encode(products(10_000), ExportFormat.JSON_COMPACT, ExportCompression.GZIP)
+                .collect().asList().await().atMost(Duration.ofSeconds(30));
+
+        // Then - several chunks that together form one gzip stream of a JSON array
+        assertThat(chunks).hasSizeGreaterThan(1);
+        Buffer body = Buffer.buffer();
+        chunks.forEach(body::appendBuffer);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.getBytes()))) {
+            ProductResponse[] written = objectMapper.readValue(in, ProductResponse[].class);
+            assertThat(written).hasSize(10_000);
+            assertThat(written[9_999].id()).isEqualTo(10_000L);
+        }
+        assertThat(exportFileCount()).isEqualTo(filesBefore);
+    }
+
+    private Multi<ProductResponse> products(int count) {
+        return Multi.createFrom().range(1, count + 1)
+                .onItem().transform(id -> new ProductResponse((long) id, "Product " + id, "Description " + id,
+                        BigDecimal.valueOf(id), LocalDateTime.now(), LocalDateTime.now()));
+    }
+
+    private int exportFileCount() {
+        return vertx.fileSystem().existsAndAwait("exports")
+                ? vertx.fileSystem().readDirAndAwait("exports").size()
+                : 0;
+    }
+}
@@ -0,0 +1,177 @@
+package com.reactive.crud.grpc;
+
+import com.reactive.crud.dto.ProductRequest;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.grpc.proto.DeleteProductRequest;
+import com.reactive.crud.grpc.proto.GetProductRequest;
+import com.reactive.crud.grpc.proto.GetProductsRequest;
+import com.reactive.crud.grpc.proto.GetProductsResponse;
+import com.reactive.crud.grpc.proto.ListProductsRequest;
+import com.reactive.crud.grpc.proto.Product;
+import com.reactive.crud.grpc.proto.ProductCatalog;
+import com.reactive.crud.grpc.proto.ProductInput;
+import com.reactive.crud.service.ProductService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+class ProductGrpcServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @InjectMock
+    ProductService productService;
+
+    @GrpcClient
+    ProductCatalog catalog;
+
+    private ProductResponse sampleResponse;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(productService);
+
+        sampleResponse = new ProductResponse(1L, "Test Product", null, new BigDecimal("99.90"), 7L,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    @Test
+    void shouldGetProductById() {
+        // Given
+        when(productService.getProductById(1L)).thenReturn(Uni.createFrom().item(sampleResponse));
+
+        // When
+        Product product = catalog.getProduct(GetProductRequest.newBuilder().setId(1).build()).await().atMost(TIMEOUT);
+
+        // Then
+        assertThat(product.getId()).isEqualTo(1);
+        assertThat(product.getName()).isEqualTo("Test Product");
+        assertThat(product.getPrice()).isEqualTo("99.90");
+        assertThat(product.hasDescription()).isFalse();
+        assertThat(product.getOwnerId()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldReturnNotFoundForMissingProduct() {
+        // Given
+        when(productService.getProductById(999L)).thenReturn(Uni.createFrom().nullItem());
+
+        // When & Then
+        assertThatThrownBy(() -> catalog.getProduct(GetProductRequest.newBuilder().setId(999).build()).await().atMost(TIMEOUT))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+    }
+
+    @Test
+    void shouldGetSeveralProductsSkippingUnknownIds() {
+        // Given
+        when(productService.getProductById(anyLong())).thenReturn(Uni.createFrom().nullItem());
+        when(productService.getProductById(1L)).thenReturn(Uni.createFrom().item(sampleResponse));
+
+        // When
+        GetProductsResponse response = catalog.getProducts(GetProductsRequest.newBuilder()
+                .addAllIds(List.of(1L, 2L, 1L)).build()).await().atMost(TIMEOUT);
+
+        // Then
+        assertThat(response.getProductsList()).extracting(Product::getId).containsExactly(1L);
+    }
+
+    @Test
+    void shouldBoundConcurrentLookupsAndKeepRequestOrder() {
+        // Given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(productService.getProductById(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            ProductResponse product = new ProductResponse(id, "Product " + id, null, BigDecimal.ONE, null,
+                    LocalDateTime.now(), LocalDateTime.now());
+            // Later ids finish first, so completion order differs from request order
+            return Uni.createFrom().item(product)
+                    .onItem().delayIt().by(Duration.ofMillis(60 - id))
+                    .onSubscription().invoke(() -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .onTermination().invoke(inFlight::decrementAndGet);
+        });
+        List<Long> ids = LongStream.rangeClosed(1, 50).boxed().toList();
+
+        // When
+        GetProductsResponse response = catalog.getProducts(GetProductsRequest.newBuilder()
+                .addAllIds(ids).build()).await().atMost(TIMEOUT);
+
+        // Then
+        assertThat(response.getProductsList()).extracting(Product::getId).containsExactlyElementsOf(ids);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void shouldStreamAllProducts() {
+        // Given
+        ProductResponse second = new ProductResponse(2L, "Product 2", "Description 2", BigDecimal.TEN,
+                LocalDateTime.now(), LocalDateTime.now());
+        when(productService.streamAllProducts()).thenReturn(Multi.createFrom().items(sampleResponse, second));
+
+        // When
+        List<Product> products = catalog.listProducts(ListProductsRequest.getDefaultInstance())
+                .collect().asList().await().atMost(TIMEOUT);
+
+        // Then
+        assertThat(products).extracting(Product::getName).containsExactly("Test Product", "Product 2");
+    }
+
+    @Test
+    void shouldCreateProduct() {
+        // Given
+        when(productService.createProduct(any(ProductRequest.class))).thenReturn(Uni.createFrom().item(sampleResponse));
+
+        // When
+        Product product = catalog.createProduct(ProductInput.newBuilder()
+                .setName("Test Product").setPrice("99.90").setOwnerId(7).build()).await().atMost(TIMEOUT);
+
+        // Then
+        assertThat(product.getId()).isEqualTo(1);
+        Mockito.verify(productService).createProduct(new ProductRequest("Test Product", null, new BigDecimal("99.90"), 7L));
+    }
+
+    @Test
+    void shouldRejectInvalidProduct() {
+        // When & Then
+        assertThatThrownBy(() -> catalog.createProduct(ProductInput.newBuilder().setPrice("-1").build()).await().atMost(TIMEOUT))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+                    assertThat(e.getStatus().getDescription()).contains("Product name is required");
+                });
+        Mockito.verify(productService, Mockito.never()).createProduct(any());
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenDeletingMissingProduct() {
+        // Given
+        when(productService.deleteProduct(eq(999L))).thenReturn(Uni.createFrom().item(false));
+
+        // When & Then
+        assertThatThrownBy(() -> catalog.deleteProduct(DeleteProductRequest.newBuilder().setId(999).build()).await().atMost(TIMEOUT))
+                .isInstanceOfSatisfying(StatusRuntimeException.class,
+                        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+    }
+}
@@ -0,0 +1,88 @@
+package com.reactive.crud.http;
+
+import com.reactive.crud.dto.ExternalUserDto;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@QuarkusTest
+@QuarkusTestResource(value = ExternalApiStubServer.class, restrictToAnnotatedClass = true)
+class ExternalApiResilienceTest {
+
+    @Inject
+    @RestClient
+    ExternalApiClient externalApiClient;
+
+    @Inject
+    HttpClientService httpClientService;
+
+    @BeforeEach
+    void setUp() {
+        ExternalApiStubServer.reset();
+    }
+
+    @Test
+    void shouldFailFastWhenUpstreamIsSlow() {
+        // Given
+        ExternalApiStubServer.latencyMs.set(3000);
+        long start = System.currentTimeMillis();
+
+        // When & Then - the 1s deadline fires long before the upstream answers
+        assertThatThrownBy(() -> externalApiClient.getUserById(100L).await().atMost(Duration.ofSeconds(5)))
+                .isInstanceOf(TimeoutException.class);
+        assertThat(System.currentTimeMillis() - start).isLessThan(2000);
+    }
+
+    @Test
+    void shouldOpenCircuitAfterRepeatedFailures() {
+        // Given
+        ExternalApiStubServer.errorStatus.set(500);
+        for (int i = 0; i < 10; i++) {
+            try {
+                externalApiClient.getAllUsers().await().atMost(Duration.ofSeconds(5));
+            } catch (Exception ignored) {
+                // expected upstream errors
+            }
+        }
+        int upstreamCalls = ExternalApiStubServer.requestCount.get();
+
+        // When & Then - rejected without reaching the upstream
+        assertThatThrownBy(() -> externalApiClient.getAllUsers().await().atMost(Duration.ofSeconds(5)))
+                .isInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(ExternalApiStubServer.requestCount.get()).isEqualTo(upstreamCalls);
+
+        given()
+                .when().get("/api/products/external/users")
+                .then()
+                .statusCode(503)
+                .header("Retry-After", "10");
+    }
+
+    @Test
+    void shouldHedgeSlowUserLookups() {
+        // Given - warm the latency window with fast calls
+        for (long id = 200; id < 240; id++) {
+            httpClientService.fetchUserById(id).await().atMost(Duration.ofSeconds(5));
+        }
+        ExternalApiStubServer.firstRequestLatencyMs.set(2000);
+        long start = System.currentTimeMillis();
+
+        // When - the first request for this id stalls, the hedged second request answers
+        ExternalUserDto user = httpClientService.fetchUserById(300L).await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(user.id()).isEqualTo(300L);
+        assertThat(System.currentTimeMillis() - start).isLessThan(450);
+    }
+}
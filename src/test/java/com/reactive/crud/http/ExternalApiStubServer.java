@@ -0,0 +1,101 @@
+package com.reactive.crud.http;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the jsonplaceholder /users API with injectable latency and errors.
+ */
+public class ExternalApiStubServer implements QuarkusTestResourceLifecycleManager {
+
+    // Latency applied to every request, in ms
+    static final AtomicLong latencyMs = new AtomicLong();
+    // Latency applied only to the first request of each user id, in ms (for hedging)
+    static final AtomicLong firstRequestLatencyMs = new AtomicLong();
+    // HTTP status to return instead of a user (0 = answer normally)
+    static final AtomicInteger errorStatus = new AtomicInteger();
+    static final AtomicInteger requestCount = new AtomicInteger();
+
+    private static final Map<String, AtomicInteger> requestsPerUser = new ConcurrentHashMap<>();
+
+    private Vertx vertx;
+    private HttpServer server;
+
+    static void reset() {
+        latencyMs.set(0);
+        firstRequestLatencyMs.set(0);
+        errorStatus.set(0);
+        requestCount.set(0);
+        requestsPerUser.clear();
+    }
+
+    @Override
+    public Map<String, String> start() {
+        vertx = Vertx.vertx();
+        try {
+            server = vertx.createHttpServer()
+                    .requestHandler(this::handle)
+                    .listen(0)
+                    .toCompletionStage().toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not start external API stub", e);
+        }
+        return Map.of(
+                "quarkus.rest-client.external-api.url", "http://localhost:" + server.actualPort(),
+                "quarkus.rest-client.external-api.read-timeout", "10000",
+                "external-api.hedging.enabled", "true",
+                "external-api.hedging.min-samples", "5"
+        );
+    }
+
+    @Override
+    public void stop() {
+        if (vertx != null) {
+            vertx.close();
+        }
+    }
+
+    private void handle(HttpServerRequest request) {
+        requestCount.incrementAndGet();
+        String path = request.path();
+        long delay = latencyMs.get();
+        if (path.startsWith("/users/")) {
+            String id = path.substring("/users/".length());
+            int seen = requestsPerUser.computeIfAbsent(id, key -> new AtomicInteger()).getAndIncrement();
+            if (seen == 0) {
+                delay += firstRequestLatencyMs.get();
+            }
+        }
+
+        Runnable respond = () -> {
+            if (errorStatus.get() != 0) {
+                request.response().setStatusCode(errorStatus.get()).end();
+            } else if (path.equals("/users")) {
+                request.response().putHeader("Content-Type", "application/json")
+                        .end("[" + user("1") + "," + user("2") + "]");
+            } else {
+                request.response().putHeader("Content-Type", "application/json")
+                        .end(user(path.substring("/users/".length())));
+            }
+        };
+        if (delay > 0) {
+            vertx.setTimer(delay, timer -> respond.run());
+        } else {
+            respond.run();
+        }
+    }
+
+    private static String user(String id) {
+        return "{\"id\":" + id + ",\"name\":\"User " + id + "\",\"email\":\"user" + id
+                + "@test\",\"username\":\"user" + id + "\"}";
+    }
+}
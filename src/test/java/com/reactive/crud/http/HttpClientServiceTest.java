@@ -0,0 +1,93 @@
+package com.reactive.crud.http;
+
+import com.reactive.crud.dto.ExternalUserDto;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.MockitoConfig;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+class HttpClientServiceTest {
+
+    @InjectMock
+    @MockitoConfig(convertScopes = true)
+    @RestClient
+    ExternalApiClient externalApiClient;
+
+    @Inject
+    HttpClientService httpClientService;
+
+    @Inject
+    @CacheName("external-users")
+    Cache userCache;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(externalApiClient);
+        userCache.invalidateAll().await().indefinitely();
+
+        when(externalApiClient.getUserById(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            return Uni.createFrom().item(new ExternalUserDto(id, "User " + id, "user" + id + "@test", "user" + id))
+                    .onItem().delayIt().by(Duration.ofMillis(200));
+        });
+    }
+
+    @Test
+    void shouldCoalesceConcurrentLookupsForTheSameUser() {
+        // When - 20 concurrent lookups while the first remote call is still in flight
+        List<ExternalUserDto> users = Multi.createFrom().range(0, 20)
+                .onItem().transformToUniAndMerge(i -> httpClientService.fetchUserById(1L))
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(users).hasSize(20).allMatch(user -> user.id() == 1L);
+        verify(externalApiClient, times(1)).getUserById(1L);
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        // Given
+        httpClientService.fetchUserById(2L).await().atMost(Duration.ofSeconds(5));
+
+        // When
+        var subscriber = httpClientService.fetchUserById(2L)
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        // Then
+        assertThat(subscriber.awaitItem().getItem().name()).isEqualTo("User 2");
+        verify(externalApiClient, times(1)).getUserById(2L);
+        assertThat(httpClientService.cacheStats().hits()).isPositive();
+    }
+
+    @Test
+    void shouldBulkFetchDistinctUsers() {
+        // When
+        Map<Long, ExternalUserDto> users = httpClientService.fetchUsersByIds(List.of(3L, 4L, 3L, 5L))
+                .await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(users).containsOnlyKeys(3L, 4L, 5L);
+        verify(externalApiClient, times(1)).getUserById(3L);
+    }
+}
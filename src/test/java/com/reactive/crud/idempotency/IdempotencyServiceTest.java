@@ -0,0 +1,157 @@
+package com.reactive.crud.idempotency;
+
+import com.reactive.crud.dto.IdempotentResponse;
+import com.reactive.crud.dto.ProductRequest;
+import com.reactive.crud.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.quarkus.redis.datasource.value.ReactiveValueCommands;
+import io.quarkus.redis.datasource.value.SetArgs;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final ProductRequest REQUEST = new ProductRequest("Keyboard", "Mechanical", new BigDecimal("49.90"));
+    private static final ProductResponse PRODUCT = new ProductResponse(1L, "Keyboard", "Mechanical",
+            new BigDecimal("49.90"), LocalDateTime.now(), LocalDateTime.now());
+
+    private final Map<String, IdempotentResponse> redisEntries = new ConcurrentHashMap<>();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private SimpleMeterRegistry registry;
+    private IdempotencyService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+
+        // SET NX GET / SET / DEL against an in-memory map instead of Redis
+        ReactiveValueCommands<String, IdempotentResponse> entries = Mockito.mock(ReactiveValueCommands.class);
+        when(entries.setGet(anyString(), any(IdempotentResponse.class), any(SetArgs.class))).thenAnswer(invocation ->
+                Uni.createFrom().item(redisEntries.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1))));
+        when(entries.set(anyString(), any(IdempotentResponse.class), any(SetArgs.class))).thenAnswer(invocation -> {
+            redisEntries.put(invocation.getArgument(0), invocation.getArgument(1));
+            return Uni.createFrom().voidItem();
+        });
+        ReactiveKeyCommands<String> keys = Mockito.mock(ReactiveKeyCommands.class);
+        when(keys.del(anyString())).thenAnswer(invocation ->
+                Uni.createFrom().item(redisEntries.remove((String) invocation.getArgument(0)) == null ? 0 : 1));
+        ReactiveRedisDataSource redis = Mockito.mock(ReactiveRedisDataSource.class);
+        when(redis.value(IdempotentResponse.class)).thenReturn(entries);
+        when(redis.key()).thenReturn(keys);
+
+        service = new IdempotencyService();
+        service.redis = redis;
+        service.registry = registry;
+        service.ttl = Duration.ofHours(1);
+        service.inProgressTtl = Duration.ofSeconds(30);
+        service.waitTimeout = Duration.ofMillis(200);
+        service.pollInterval = Duration.ofMillis(10);
+        service.init();
+    }
+
+    @Test
+    void shouldReplayStoredResponseWithoutRunningTheCreateAgain() {
+        // When
+        IdempotencyService.Outcome first = service.execute("key-1", REQUEST, this::create).await().indefinitely();
+        IdempotencyService.Outcome retry = service.execute("key-1", REQUEST, this::create).await().indefinitely();
+
+        // Then
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.product()).isEqualTo(PRODUCT);
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(registry.counter("idempotency.requests", "outcome", "replayed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLetConcurrentDuplicatesWaitOnTheInFlightRequest() {
+        // Given - the create does not finish until the test releases it
+        AtomicReference<UniEmitter<? super ProductResponse>> pending = new AtomicReference<>();
+        UniAssertSubscriber<IdempotencyService.Outcome> first = service.execute("key-1", REQUEST, () -> {
+            executions.incrementAndGet();
+            return Uni.createFrom().<ProductResponse>emitter(pending::set);
+        }).subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        // When
+        UniAssertSubscriber<IdempotencyService.Outcome> duplicate = service.execute("key-1", REQUEST, this::create)
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        pending.get().complete(PRODUCT);
+
+        // Then
+        assertThat(first.awaitItem().getItem().replayed()).isFalse();
+        assertThat(duplicate.awaitItem().getItem().replayed()).isTrue();
+        assertThat(duplicate.getItem().product()).isEqualTo(PRODUCT);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentBody() {
+        // Given
+        service.execute("key-1", REQUEST, this::create).await().indefinitely();
+        ProductRequest other = new ProductRequest("Mouse", null, BigDecimal.TEN);
+
+        // When & Then
+        assertThatThrownBy(() -> service.execute("key-1", other, this::create).await().indefinitely())
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReleaseKeyWhenTheFirstRequestFails() {
+        // Given
+        assertThatThrownBy(() -> service.execute("key-1", REQUEST,
+                () -> Uni.createFrom().failure(new IllegalStateException("database down"))).await().indefinitely())
+                .isInstanceOf(IllegalStateException.class);
+
+        // When
+        IdempotencyService.Outcome retry = service.execute("key-1", REQUEST, this::create).await().indefinitely();
+
+        // Then
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGiveUpWaitingForARequestRunningElsewhere() {
+        // Given - another instance claimed the key and has not finished
+        redisEntries.put("idempotency:key-1", IdempotentResponse.inProgress(IdempotencyService.fingerprint(REQUEST)));
+
+        // When & Then
+        assertThatThrownBy(() -> service.execute("key-1", REQUEST, this::create).await().atMost(Duration.ofSeconds(5)))
+                .isInstanceOf(IdempotencyInProgressException.class);
+        assertThat(executions.get()).isZero();
+    }
+
+    @Test
+    void shouldTreatEquivalentPricesAsTheSameRequest() {
+        assertThat(IdempotencyService.fingerprint(new ProductRequest("Keyboard", "Mechanical", new BigDecimal("49.9"))))
+                .isEqualTo(IdempotencyService.fingerprint(REQUEST));
+    }
+
+    private Uni<ProductResponse> create() {
+        executions.incrementAndGet();
+        return Uni.createFrom().item(PRODUCT);
+    }
+}
@@ -0,0 +1,80 @@
+package com.reactive.crud.mail;
+
+import com.reactive.crud.dto.ProductEventDto;
+import io.quarkus.mailer.Mail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailDigestAggregatorTest {
+
+    private MailService mailService;
+    private MailDispatcher mailDispatcher;
+    private MailDigestAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        mailService = Mockito.mock(MailService.class);
+        mailDispatcher = Mockito.mock(MailDispatcher.class);
+        when(mailService.productDigest(any(), anyList())).thenAnswer(invocation ->
+                Mail.withText(invocation.getArgument(0), "digest", "body"));
+
+        aggregator = new MailDigestAggregator();
+        aggregator.mailService = mailService;
+        aggregator.mailDispatcher = mailDispatcher;
+        aggregator.enabled = true;
+        aggregator.window = Duration.ofMinutes(1);
+        aggregator.maxEntries = 3;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSendOneDigestWhenMaxEntriesReached() {
+        // When
+        aggregator.add(ProductEventDto.EventType.CREATED, 1L, "A", "admin@test");
+        aggregator.add(ProductEventDto.EventType.UPDATED, 1L, "A2", "admin@test");
+        verify(mailDispatcher, never()).dispatch(any(), any());
+        aggregator.add(ProductEventDto.EventType.DELETED, 2L, "B", "admin@test");
+
+        // Then
+        ArgumentCaptor<List<MailDigestAggregator.Entry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(mailService).productDigest(eq("admin@test"), entries.capture());
+        assertThat(entries.getValue())
+                .extracting(MailDigestAggregator.Entry::eventType)
+                .containsExactly(ProductEventDto.EventType.CREATED,
+                        ProductEventDto.EventType.UPDATED,
+                        ProductEventDto.EventType.DELETED);
+        verify(mailDispatcher, times(1)).dispatch(isNull(), any(Mail.class));
+    }
+
+    @Test
+    void shouldFlushOneDigestPerRecipient() {
+        // Given
+        aggregator.add(ProductEventDto.EventType.CREATED, 1L, "A", "admin@test");
+        aggregator.add(ProductEventDto.EventType.CREATED, 2L, "B", "ops@test");
+        aggregator.add(ProductEventDto.EventType.UPDATED, 2L, "B2", "ops@test");
+
+        // When
+        aggregator.flushAll();
+        aggregator.flushAll();
+
+        // Then
+        verify(mailService).productDigest(eq("admin@test"), anyList());
+        verify(mailService).productDigest(eq("ops@test"), anyList());
+        verify(mailDispatcher, times(2)).dispatch(isNull(), any(Mail.class));
+    }
+}
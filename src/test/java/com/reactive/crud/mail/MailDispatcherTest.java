@@ -0,0 +1,163 @@
+package com.reactive.crud.mail;
+
+import com.reactive.crud.dto.ProductEventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.mailer.Mail;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class MailDispatcherTest {
+
+    private final List<UniEmitter<? super Void>> pendingSends = new CopyOnWriteArrayList<>();
+    private final List<Mail> sentMails = new CopyOnWriteArrayList<>();
+
+    private SimpleMeterRegistry registry;
+    private MailService mailService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        mailService = Mockito.mock(MailService.class);
+
+        // SMTP sends never complete until the test releases them
+        when(mailService.send(any(Mail.class))).thenAnswer(invocation -> {
+            sentMails.add(invocation.getArgument(0));
+            return Uni.createFrom().<Void>emitter(pendingSends::add);
+        });
+        when(mailService.productNotification(any(), any(), any(), any())).thenAnswer(invocation ->
+                Mail.withText(invocation.getArgument(3), "Product " + invocation.getArgument(0),
+                        invocation.getArgument(2)));
+    }
+
+    @Test
+    void shouldLimitConcurrentSendsAndQueueTheRest() {
+        // Given
+        MailDispatcher dispatcher = dispatcher(10, 2, MailDispatcher.OverflowPolicy.DROP_NEWEST);
+
+        // When
+        for (long id = 1; id <= 5; id++) {
+            dispatcher.dispatchProductNotification(ProductEventDto.EventType.CREATED, id, "P" + id, "admin@test");
+        }
+
+        // Then
+        assertThat(dispatcher.inFlight()).isEqualTo(2);
+        assertThat(dispatcher.queueDepth()).isEqualTo(3);
+
+        // When - first send completes, the next queued mail starts
+        pendingSends.get(0).complete(null);
+
+        // Then
+        assertThat(dispatcher.inFlight()).isEqualTo(2);
+        assertThat(dispatcher.queueDepth()).isEqualTo(2);
+        assertThat(sentMails).hasSize(3);
+        assertThat(registry.counter("product.mail.sent").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDropNewestWhenQueueIsFull() {
+        // Given
+        MailDispatcher dispatcher = dispatcher(2, 1, MailDispatcher.OverflowPolicy.DROP_NEWEST);
+
+        // When
+        boolean[] accepted = new boolean[4];
+        for (int i = 0; i < 4; i++) {
+            accepted[i] = dispatcher.dispatchProductNotification(
+                    ProductEventDto.EventType.UPDATED, (long) i, "P" + i, "admin@test");
+        }
+
+        // Then - one in flight, two queued, the last one dropped
+        assertThat(accepted).containsExactly(true, true, true, false);
+        assertThat(dispatcher.queueDepth()).isEqualTo(2);
+        assertThat(registry.counter("product.mail.dropped", "policy", "DROP_NEWEST").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldCoalesceQueuedMailsForTheSameProduct() {
+        // Given
+        MailDispatcher dispatcher = dispatcher(10, 1, MailDispatcher.OverflowPolicy.COALESCE);
+        dispatcher.dispatchProductNotification(ProductEventDto.EventType.UPDATED, 1L, "first", "admin@test");
+
+        // When - product 2 is updated three times while the SMTP connection is busy
+        dispatcher.dispatchProductNotification(ProductEventDto.EventType.UPDATED, 2L, "v1", "admin@test");
+        dispatcher.dispatchProductNotification(ProductEventDto.EventType.UPDATED, 2L, "v2", "admin@test");
+        dispatcher.dispatchProductNotification(ProductEventDto.EventType.UPDATED, 2L, "v3", "admin@test");
+
+        // Then
+        assertThat(dispatcher.queueDepth()).isEqualTo(1);
+        assertThat(registry.counter("product.mail.coalesced").count()).isEqualTo(2.0);
+
+        pendingSends.get(0).complete(null);
+        assertThat(sentMails).hasSize(2);
+        assertThat(sentMails.get(1).getText()).isEqualTo("v3");
+    }
+
+    @Test
+    void shouldDrainLongQueueWithoutGrowingTheStackWhenSendsCompleteSynchronously() {
+        // Given - the first send stays open while a long queue builds up behind it
+        MailDispatcher dispatcher = dispatcher(50_000, 1, MailDispatcher.OverflowPolicy.DROP_NEWEST);
+        dispatcher.dispatch(null, Mail.withText("admin@test", "first", "first"));
+        when(mailService.send(any(Mail.class))).thenReturn(Uni.createFrom().voidItem());
+        for (int i = 0; i < 50_000; i++) {
+            dispatcher.dispatch(null, Mail.withText("admin@test", "queued " + i, "queued"));
+        }
+
+        // When - every queued send completes on the calling thread
+        pendingSends.get(0).complete(null);
+
+        // Then
+        assertThat(dispatcher.queueDepth()).isZero();
+        assertThat(dispatcher.inFlight()).isZero();
+        assertThat(registry.counter("product.mail.sent").count()).isEqualTo(50_001.0);
+    }
+
+    @Test
+    void shouldReturnFromShutdownAsSoonAsInFlightMailsComplete() throws Exception {
+        // Given
+        MailDispatcher dispatcher = dispatcher(10, 1, MailDispatcher.OverflowPolicy.DROP_NEWEST);
+        dispatcher.shutdownTimeout = Duration.ofSeconds(30);
+        dispatcher.dispatch(null, Mail.withText("admin@test", "first", "first"));
+        Thread completer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pendingSends.get(0).complete(null);
+        });
+
+        // When
+        long start = System.nanoTime();
+        completer.start();
+        dispatcher.onStop(null);
+        completer.join();
+
+        // Then
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(dispatcher.inFlight()).isZero();
+        assertThat(registry.counter("product.mail.sent").count()).isEqualTo(1.0);
+    }
+
+    private MailDispatcher dispatcher(int capacity, int concurrency, MailDispatcher.OverflowPolicy policy) {
+        MailDispatcher dispatcher = new MailDispatcher();
+        dispatcher.mailService = mailService;
+        dispatcher.digestAggregator = new MailDigestAggregator();
+        dispatcher.registry = registry;
+        dispatcher.capacity = capacity;
+        dispatcher.concurrency = concurrency;
+        dispatcher.overflowPolicy = policy;
+        dispatcher.shutdownTimeout = Duration.ofSeconds(1);
+        dispatcher.init();
+        return dispatcher;
+    }
+}
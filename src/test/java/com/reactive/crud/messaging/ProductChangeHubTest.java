@@ -0,0 +1,84 @@
+package com.reactive.crud.messaging;
+
+import com.reactive.crud.dto.ProductEventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductChangeHubTest {
+
+    private SimpleMeterRegistry registry;
+    private ProductChangeHub hub;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        hub = new ProductChangeHub();
+        hub.registry = registry;
+        hub.bufferSize = 2;
+        hub.defaultPolicy = ProductChangeHub.OverflowPolicy.LATEST;
+        hub.init();
+    }
+
+    @Test
+    void shouldKeepOnlyLatestEventForSlowSubscriberWithoutAffectingFastOne() {
+        // Given
+        AssertSubscriber<ProductEventDto> fast = hub.subscribe(ProductChangeHub.OverflowPolicy.BUFFER)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        AssertSubscriber<ProductEventDto> slow = hub.subscribe()
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+
+        // When
+        hub.publish(event(1));
+        hub.publish(event(2));
+        hub.publish(event(3));
+        slow.request(1);
+
+        // Then
+        assertThat(fast.getItems()).extracting(ProductEventDto::productId).containsExactly(1L, 2L, 3L);
+        assertThat(slow.getItems()).extracting(ProductEventDto::productId).containsExactly(3L);
+        assertThat(registry.counter("product.changes.overflow", "policy", "LATEST").count()).isEqualTo(3);
+        assertThat(hub.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDropEventsWhileSubscriberHasNoDemand() {
+        // Given
+        AssertSubscriber<ProductEventDto> subscriber = hub.subscribe(ProductChangeHub.OverflowPolicy.DROP)
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+
+        // When
+        hub.publish(event(1));
+        hub.publish(event(2));
+        subscriber.request(1);
+        hub.publish(event(3));
+
+        // Then
+        assertThat(subscriber.getItems()).extracting(ProductEventDto::productId).containsExactly(3L);
+        assertThat(registry.counter("product.changes.overflow", "policy", "DROP").count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDisconnectSubscriberThatOverflowsItsBuffer() {
+        // Given
+        AssertSubscriber<ProductEventDto> subscriber = hub.subscribe(ProductChangeHub.OverflowPolicy.BUFFER)
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+
+        // When - one more event than the buffer holds
+        hub.publish(event(1));
+        hub.publish(event(2));
+        hub.publish(event(3));
+
+        // Then
+        subscriber.assertCompleted();
+        assertThat(registry.counter("product.changes.disconnected").count()).isEqualTo(1);
+        assertThat(hub.subscriberCount()).isZero();
+    }
+
+    private ProductEventDto event(long productId) {
+        return new ProductEventDto("UPDATED", productId, "Product " + productId, "2025-01-01T12:00:00");
+    }
+}
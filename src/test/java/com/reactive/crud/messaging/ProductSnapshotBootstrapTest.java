@@ -0,0 +1,68 @@
+package com.reactive.crud.messaging;
+
+import com.reactive.crud.cache.ProductCacheService;
+import com.reactive.crud.dto.ProductResponse;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSnapshotBootstrapTest {
+
+    private ProductCacheService cacheService;
+    private ProductSnapshotBootstrap bootstrap;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = Mockito.mock(ProductCacheService.class);
+        when(cacheService.setIfAbsent(anyLong(), any())).thenReturn(Uni.createFrom().voidItem());
+        bootstrap = new ProductSnapshotBootstrap();
+        bootstrap.cacheService = cacheService;
+        bootstrap.seedConcurrency = 4;
+    }
+
+    @Test
+    void shouldOnlyFillMissingCacheEntriesFromSnapshot() {
+        // Given
+        ProductResponse first = product(1L);
+        ProductResponse second = product(2L);
+
+        // When
+        bootstrap.seedCache(List.of(first, second)).await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        verify(cacheService).setIfAbsent(eq(1L), eq(first));
+        verify(cacheService).setIfAbsent(eq(2L), eq(second));
+        verify(cacheService, never()).set(anyLong(), any());
+    }
+
+    @Test
+    void shouldKeepSeedingWhenOneEntryFails() {
+        // Given
+        ProductResponse first = product(1L);
+        ProductResponse second = product(2L);
+        when(cacheService.setIfAbsent(eq(1L), any()))
+                .thenReturn(Uni.createFrom().failure(new RuntimeException("redis down")));
+
+        // When
+        bootstrap.seedCache(List.of(first, second)).await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        verify(cacheService).setIfAbsent(eq(2L), eq(second));
+    }
+
+    private ProductResponse product(Long id) {
+        return new ProductResponse(id, "Product " + id, null, BigDecimal.TEN, null, null);
+    }
+}
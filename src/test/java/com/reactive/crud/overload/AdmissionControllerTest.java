@@ -0,0 +1,127 @@
+package com.reactive.crud.overload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class AdmissionControllerTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private SimpleMeterRegistry registry;
+    private EventLoopLagProbe lagProbe;
+    private AdmissionController controller;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        lagProbe = Mockito.mock(EventLoopLagProbe.class);
+
+        controller = new AdmissionController();
+        controller.registry = registry;
+        controller.lagProbe = lagProbe;
+        controller.initialLimit = 10;
+        controller.minLimit = 2;
+        controller.maxLimit = 100;
+        controller.latencyTarget = Duration.ofMillis(100);
+        controller.backoffRatio = 0.5;
+        controller.lowPriorityShare = 0.5;
+        controller.lagThreshold = Duration.ofMillis(100);
+        controller.init();
+    }
+
+    @Test
+    void shouldReserveHeadroomForHighPriorityRequests() {
+        // When - low priority requests fill their share of the limit
+        int lowAdmitted = acquire(AdmissionController.Priority.LOW, 10);
+        int highAdmitted = acquire(AdmissionController.Priority.HIGH, 10);
+
+        // Then
+        assertThat(lowAdmitted).isEqualTo(5);
+        assertThat(highAdmitted).isEqualTo(5);
+        assertThat(controller.inFlight()).isEqualTo(10);
+        assertThat(registry.counter("http.admission.rejected", "priority", "LOW").count()).isEqualTo(5);
+        assertThat(registry.counter("http.admission.rejected", "priority", "HIGH").count()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldShrinkLimitOnSlowResponsesAndGrowItBackUnderLoad() {
+        // Given
+        acquire(AdmissionController.Priority.HIGH, 10);
+
+        // When - a slow response halves the limit, a burst of slow ones counts once
+        controller.release(AdmissionController.Priority.HIGH, SLOW, false);
+        controller.release(AdmissionController.Priority.HIGH, SLOW, false);
+
+        // Then
+        assertThat(controller.limit()).isEqualTo(5);
+
+        // When - the limit is fully used and responses are fast again
+        for (int i = 0; i < 30; i++) {
+            controller.release(AdmissionController.Priority.HIGH, FAST, false);
+            acquire(AdmissionController.Priority.HIGH, 1);
+        }
+
+        // Then
+        assertThat(controller.limit()).isGreaterThan(5);
+    }
+
+    @Test
+    void shouldIgnoreLatencyOfLowPriorityRequests() {
+        // Given
+        acquire(AdmissionController.Priority.LOW, 1);
+
+        // When - exports are slow by nature
+        controller.release(AdmissionController.Priority.LOW, SLOW, false);
+
+        // Then
+        assertThat(controller.limit()).isEqualTo(10);
+        assertThat(controller.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldShedLowPriorityRequestsWhileEventLoopLags() {
+        // Given
+        when(lagProbe.lagNanos()).thenReturn(Duration.ofMillis(500).toNanos());
+
+        // When & Then
+        assertThat(controller.tryAcquire(AdmissionController.Priority.LOW)).isFalse();
+        assertThat(controller.tryAcquire(AdmissionController.Priority.HIGH)).isTrue();
+        assertThat(controller.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldClassifyBulkAndStreamingRequestsAsLowPriority() {
+        assertThat(AdmissionRouteHandler.priorityOf("/api/products/1", "application/json"))
+                .isEqualTo(AdmissionController.Priority.HIGH);
+        assertThat(AdmissionRouteHandler.priorityOf("/api/products/export/sharded", null))
+                .isEqualTo(AdmissionController.Priority.LOW);
+        assertThat(AdmissionRouteHandler.priorityOf("/api/products", "application/x-ndjson"))
+                .isEqualTo(AdmissionController.Priority.LOW);
+    }
+
+    @Test
+    void shouldNotTreatSheddingOrDeadlineResponsesAsOverload() {
+        assertThat(AdmissionRouteHandler.overloadSignal(500)).isTrue();
+        assertThat(AdmissionRouteHandler.overloadSignal(503)).isFalse();
+        assertThat(AdmissionRouteHandler.overloadSignal(504)).isFalse();
+        assertThat(AdmissionRouteHandler.overloadSignal(200)).isFalse();
+    }
+
+    private int acquire(AdmissionController.Priority priority, int attempts) {
+        int admitted = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (controller.tryAcquire(priority)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+}
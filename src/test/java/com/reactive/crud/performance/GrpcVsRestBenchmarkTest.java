@@ -0,0 +1,217 @@
+package com.reactive.crud.performance;
+
+import com.reactive.crud.dto.ProductLookup;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.entity.CatalogVersion;
+import com.reactive.crud.grpc.proto.GetProductRequest;
+import com.reactive.crud.grpc.proto.ListProductsRequest;
+import com.reactive.crud.grpc.proto.Product;
+import com.reactive.crud.grpc.proto.ProductCatalog;
+import com.reactive.crud.http.LatencyTracker;
+import com.reactive.crud.service.ProductService;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * gRPC vs REST (JSON over HTTP/1.1) karşılaştırması
+ *
+ * ProductService mock'lanır, böylece yalnızca transport ve serialization maliyeti ölçülür:
+ * 1. Tek ürün okuma: req/s, p50/p99 latency, istek başına body byte
+ * 2. Tüm listeyi okuma: REST JSON array vs gRPC server-streaming, toplam byte
+ */
+@QuarkusTest
+@TestProfile(GrpcVsRestBenchmarkTest.UnlimitedProfile.class)
+public class GrpcVsRestBenchmarkTest {
+
+    private static final int REQUESTS = 5_000;
+    private static final int CONCURRENCY = 32;
+    private static final int WARMUP_REQUESTS = 500;
+    private static final int CATALOG_SIZE = 1_000;
+    // gRPC length-prefixed message: 1 byte compression flag + 4 bytes length
+    private static final int GRPC_FRAME_PREFIX = 5;
+
+    // Rate limiting and admission control would reject a benchmark's worth of requests from one client
+    public static class UnlimitedProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "product.rate-limit.enabled", "false",
+                    "product.admission.enabled", "false");
+        }
+    }
+
+    private record Result(String name, long requests, Duration elapsed, LatencyTracker latencies, long bytes) {
+    }
+
+    @InjectMock
+    ProductService productService;
+
+    @GrpcClient
+    ProductCatalog catalog;
+
+    @TestHTTPResource("/api/products")
+    URI productsUri;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private List<ProductResponse> products;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        products = LongStream.rangeClosed(1, CATALOG_SIZE)
+                .mapToObj(id -> new ProductResponse(id, "Product " + id, "Description of product " + id,
+                        new BigDecimal("199.99"), id % 10, now, now))
+                .toList();
+        when(productService.getProductById(anyLong()))
+                .thenAnswer(invocation -> Uni.createFrom().item(products.get((int) (invocation.<Long>getArgument(0) - 1))));
+        when(productService.lookupProductById(anyLong()))
+                .thenAnswer(invocation -> Uni.createFrom().item(
+                        ProductLookup.fresh(products.get((int) (invocation.<Long>getArgument(0) - 1)))));
+        when(productService.getCatalogVersion())
+                .thenReturn(Uni.createFrom().item(new CatalogVersion(1, CATALOG_SIZE, now)));
+        when(productService.getAllProducts()).thenAnswer(invocation -> Multi.createFrom().iterable(products));
+        when(productService.streamAllProducts()).thenAnswer(invocation -> Multi.createFrom().iterable(products));
+    }
+
+    /**
+     * Test 1: Tek ürün okuma (GET /api/products/{id} vs GetProduct)
+     */
+    @Test
+    void test1_GetById_GrpcVsRest() throws Exception {
+        System.out.println("\n" + "=".repeat(80));
+        System.out.println("TEST 1: GET BY ID - REST (JSON/HTTP 1.1) vs gRPC (protobuf/HTTP 2)");
+        System.out.println("=".repeat(80));
+
+        run(WARMUP_REQUESTS, this::restGet);
+        run(WARMUP_REQUESTS, this::grpcGet);
+
+        Result rest = measure("REST", this::restGet);
+        Result grpc = measure("gRPC", this::grpcGet);
+
+        printResults(rest);
+        printResults(grpc);
+        System.out.printf("%ngRPC throughput: %.2fx of REST, body bytes per response: %.2fx of REST%n",
+                throughput(grpc) / throughput(rest), (double) grpc.bytes() / rest.bytes());
+
+        assertThat(rest.latencies().count()).isEqualTo(REQUESTS);
+        assertThat(grpc.latencies().count()).isEqualTo(REQUESTS);
+    }
+
+    /**
+     * Test 2: Tüm katalog (GET /api/products vs ListProducts stream)
+     */
+    @Test
+    void test2_ListAll_GrpcVsRest() throws Exception {
+        System.out.println("\n" + "=".repeat(80));
+        System.out.println("TEST 2: LIST " + CATALOG_SIZE + " PRODUCTS - REST JSON ARRAY vs gRPC SERVER STREAMING");
+        System.out.println("=".repeat(80));
+
+        // Uncompressed, so both sides report serialization size rather than gzip ratio
+        HttpResponse<byte[]> rest = httpClient.send(HttpRequest.newBuilder(productsUri)
+                .header("Accept-Encoding", "identity").build(), HttpResponse.BodyHandlers.ofByteArray());
+        List<Product> grpc = catalog.listProducts(ListProductsRequest.getDefaultInstance())
+                .collect().asList().await().atMost(Duration.ofSeconds(30));
+        long grpcBytes = grpc.stream().mapToLong(product -> product.getSerializedSize() + GRPC_FRAME_PREFIX).sum();
+
+        System.out.printf("REST body: %,d bytes%n", rest.body().length);
+        System.out.printf("gRPC messages: %,d bytes (%.2fx of REST)%n", grpcBytes, (double) grpcBytes / rest.body().length);
+
+        assertThat(rest.statusCode()).isEqualTo(200);
+        assertThat(grpc).hasSize(CATALOG_SIZE);
+    }
+
+    // Body bytes of one call on both sides: the JSON body for REST, the framed message for gRPC.
+    // Headers and trailers are left out of both, HTTP/2 ones are HPACK-compressed and not visible here
+    private long restGet(long id) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(productsUri.resolve("/api/products/" + id))
+                .header("Accept-Encoding", "identity").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response.body().length;
+    }
+
+    private long grpcGet(long id) {
+        Product product = catalog.getProduct(GetProductRequest.newBuilder().setId(id).build())
+                .await().atMost(Duration.ofSeconds(10));
+        return product.getSerializedSize() + GRPC_FRAME_PREFIX;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        long execute(long id) throws Exception;
+    }
+
+    private Result measure(String name, Call call) throws Exception {
+        LatencyTracker latencies = new LatencyTracker(REQUESTS);
+        long start = System.nanoTime();
+        long bytes = run(REQUESTS, id -> {
+            long callStart = System.nanoTime();
+            long size = call.execute(id);
+            latencies.record(Duration.ofNanos(System.nanoTime() - callStart));
+            return size;
+        });
+        return new Result(name, REQUESTS, Duration.ofNanos(System.nanoTime() - start), latencies, bytes / REQUESTS);
+    }
+
+    // CONCURRENCY virtual-thread clients, each issuing its share of requests back to back
+    private long run(int requests, Call call) throws Exception {
+        AtomicLong bytes = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int client = 0; client < CONCURRENCY; client++) {
+                int first = client;
+                clients.add(executor.submit(() -> {
+                    for (int i = first; i < requests; i += CONCURRENCY) {
+                        bytes.addAndGet(call.execute(i % CATALOG_SIZE + 1));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+        }
+        return bytes.get();
+    }
+
+    private static double throughput(Result result) {
+        return result.requests() / (result.elapsed().toNanos() / 1_000_000_000.0);
+    }
+
+    private static void printResults(Result result) {
+        System.out.println("\n📊 " + result.name() + " RESULTS:");
+        System.out.printf("Requests: %,d (concurrency %d)%n", result.requests(), CONCURRENCY);
+        System.out.printf("Throughput: %,.0f req/s%n", throughput(result));
+        System.out.printf("Latency p50: %.2f ms, p99: %.2f ms%n",
+                result.latencies().percentile(0.50).toNanos() / 1_000_000.0,
+                result.latencies().percentile(0.99).toNanos() / 1_000_000.0);
+        System.out.printf("Body bytes per response: %,d%n", result.bytes());
+    }
+}
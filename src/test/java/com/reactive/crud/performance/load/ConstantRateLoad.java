@@ -0,0 +1,96 @@
+package com.reactive.crud.performance.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+// Open-model load generator: request i starts at start + i / rate whether or not earlier requests have
+// finished, and its latency is measured from that scheduled time rather than from when it was actually sent.
+// A server stall therefore shows up in the percentiles instead of silently slowing the client down
+// (coordinated omission)
+final class ConstantRateLoad {
+
+    // Latencies are recorded in microseconds with 3 significant digits, up to one minute
+    static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    record Result(String route, int ratePerSecond, long scheduled, Histogram latencies,
+                  Map<Integer, Long> statuses, long failures, long maxSendLagMicros) {
+
+        long completed() {
+            return latencies.getTotalCount();
+        }
+    }
+
+    private final HttpClient client;
+    private final int ratePerSecond;
+    private final Duration warmup;
+    private final Duration duration;
+
+    ConstantRateLoad(HttpClient client, int ratePerSecond, Duration warmup, Duration duration) {
+        this.client = client;
+        this.ratePerSecond = ratePerSecond;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    // requests builds request i; it runs on the scheduling thread only, so a seeded Random stays deterministic
+    Result run(String route, IntFunction<HttpRequest> requests) throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        int warmupRequests = (int) (warmup.toNanos() / interval);
+        int measuredRequests = (int) (duration.toNanos() / interval);
+        int total = warmupRequests + measuredRequests;
+
+        Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder failures = new LongAdder();
+        CountDownLatch done = new CountDownLatch(total);
+        long maxSendLag = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long scheduled = start + i * interval;
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = i >= warmupRequests;
+            HttpRequest request = requests.apply(i);
+            if (measured) {
+                // How far the generator itself fell behind; large values mean the client, not the server, is saturated
+                maxSendLag = Math.max(maxSendLag, System.nanoTime() - scheduled);
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (measured) {
+                            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                            latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                            if (failure != null) {
+                                failures.increment();
+                            } else {
+                                statuses.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+                            }
+                        }
+                        done.countDown();
+                    });
+        }
+        // Requests still open after this are reported as missing (scheduled - completed)
+        done.await(1, TimeUnit.MINUTES);
+
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new Result(route, ratePerSecond, measuredRequests, latencies.copy(), statusCounts, failures.sum(),
+                TimeUnit.NANOSECONDS.toMicros(maxSendLag));
+    }
+}
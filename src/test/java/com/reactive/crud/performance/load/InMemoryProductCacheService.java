@@ -0,0 +1,96 @@
+package com.reactive.crud.performance.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactive.crud.cache.ProductCacheService;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.dto.ProductShadowCopy;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Redis stand-in for the load harness. Values are kept as JSON bytes, so the codec work a Redis round trip
+// costs stays on the measured path; only the network hop is gone. Only enabled by LoadTestProfile
+@Alternative
+@ApplicationScoped
+public class InMemoryProductCacheService extends ProductCacheService {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Long, byte[]> entries = new ConcurrentHashMap<>();
+    private final Map<Long, byte[]> shadows = new ConcurrentHashMap<>();
+
+    // The data source is only handed to the superclass, which creates its command objects without connecting
+    @Inject
+    public InMemoryProductCacheService(ReactiveRedisDataSource redis, ObjectMapper objectMapper) {
+        super(redis, Duration.ofHours(24));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Uni<ProductResponse> get(Long productId) {
+        return Uni.createFrom().item(() -> decode(entries.get(productId), ProductResponse.class));
+    }
+
+    @Override
+    public Uni<ProductShadowCopy> getShadow(Long productId) {
+        return Uni.createFrom().item(() -> decode(shadows.get(productId), ProductShadowCopy.class));
+    }
+
+    @Override
+    public Uni<Void> set(Long productId, ProductResponse product) {
+        return Uni.createFrom().item(() -> {
+            entries.put(productId, encode(product));
+            shadows.put(productId, encode(new ProductShadowCopy(product, System.currentTimeMillis())));
+            return null;
+        });
+    }
+
+    @Override
+    public Uni<Boolean> delete(Long productId) {
+        return Uni.createFrom().item(() -> {
+            shadows.remove(productId);
+            return entries.remove(productId) != null;
+        });
+    }
+
+    @Override
+    public Uni<Integer> deleteAll(Collection<Long> productIds) {
+        return Uni.createFrom().item(() -> {
+            int deleted = 0;
+            for (Long productId : productIds) {
+                shadows.remove(productId);
+                if (entries.remove(productId) != null) {
+                    deleted++;
+                }
+            }
+            return deleted;
+        });
+    }
+
+    private byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T decode(byte[] value, Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.reactive.crud.performance.load;
+
+import com.reactive.crud.entity.CatalogVersion;
+import com.reactive.crud.entity.Product;
+import com.reactive.crud.entity.ProductDeletion;
+import com.reactive.crud.repository.ProductRepository;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.tuples.Tuple2;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Postgres stand-in for the load harness: the products table and deletion log in memory, with the same
+// null/false conventions as ProductRepository. Only enabled by LoadTestProfile
+@Alternative
+@ApplicationScoped
+public class InMemoryProductRepository extends ProductRepository {
+
+    private final ConcurrentSkipListMap<Long, Product> rows = new ConcurrentSkipListMap<>();
+    private final List<ProductDeletion> deletions = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong deletionSeq = new AtomicLong();
+    private final AtomicReference<CatalogVersion> version = new AtomicReference<>(new CatalogVersion(1, 0, null));
+
+    // Inserts count generated products and returns their ids
+    public List<Long> seed(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> seeded = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = ids.incrementAndGet();
+            rows.put(id, new Product(id, "Product " + id, "Description of product " + id,
+                    new BigDecimal("199.99"), id % 10, now, now));
+            seeded.add(id);
+        }
+        bumpVersion();
+        return seeded;
+    }
+
+    @Override
+    public Multi<Product> findAll() {
+        return Multi.createFrom().items(() -> rows.values().stream().map(InMemoryProductRepository::copy));
+    }
+
+    @Override
+    public Multi<Product> streamAll(int fetchSize) {
+        return findAll();
+    }
+
+    @Override
+    public Multi<Product> streamIdRange(long fromInclusive, long toExclusive, int fetchSize) {
+        return findAll().select().where(product -> product.getId() >= fromInclusive && product.getId() < toExclusive);
+    }
+
+    @Override
+    public Uni<Tuple2<Long, Long>> idBounds() {
+        return Uni.createFrom().item(() -> rows.isEmpty() ? null : Tuple2.of(rows.firstKey(), rows.lastKey()));
+    }
+
+    @Override
+    public Multi<Product> streamUpdatedSince(LocalDateTime since, int fetchSize) {
+        return Multi.createFrom().items(() -> rows.values().stream()
+                .filter(product -> product.getUpdatedAt().isAfter(since))
+                .sorted((a, b) -> a.getUpdatedAt().compareTo(b.getUpdatedAt()))
+                .map(InMemoryProductRepository::copy));
+    }
+
+    @Override
+    public Multi<ProductDeletion> streamDeletionsSince(long seq, int fetchSize) {
+        return Multi.createFrom().items(() -> deletions.stream().filter(deletion -> deletion.seq() > seq));
+    }
+
+    @Override
+    public Uni<Long> maxDeletionSeq() {
+        return Uni.createFrom().item(deletionSeq::get);
+    }
+
+    @Override
+    public Uni<CatalogVersion> catalogVersion() {
+        return Uni.createFrom().item(version::get);
+    }
+
+    @Override
+    public Uni<Product> findById(Long id) {
+        return Uni.createFrom().item(() -> copy(rows.get(id)));
+    }
+
+    @Override
+    public Uni<Product> create(Product product) {
+        return Uni.createFrom().item(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            long id = ids.incrementAndGet();
+            Product row = new Product(id, product.getName(), product.getDescription(), product.getPrice(),
+                    product.getOwnerId(), now, now);
+            rows.put(id, row);
+            bumpVersion();
+            return copy(row);
+        });
+    }
+
+    @Override
+    public Uni<Product> update(Product product) {
+        return Uni.createFrom().item(() -> copy(changed(rows.computeIfPresent(product.getId(),
+                (id, current) -> updated(current, product)))));
+    }
+
+    @Override
+    public Uni<Product> update(Product product, LocalDateTime expectedUpdatedAt) {
+        return Uni.createFrom().item(() -> {
+            AtomicReference<Product> applied = new AtomicReference<>();
+            rows.computeIfPresent(product.getId(), (id, current) -> {
+                if (!Objects.equals(current.getUpdatedAt(), expectedUpdatedAt)) {
+                    return current;
+                }
+                applied.set(updated(current, product));
+                return applied.get();
+            });
+            return copy(changed(applied.get()));
+        });
+    }
+
+    @Override
+    public Uni<Integer> importBatch(List<Product> products) {
+        return Uni.createFrom().item(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Product product : products) {
+                long id = product.getId() == null ? ids.incrementAndGet() : product.getId();
+                rows.put(id, new Product(id, product.getName(), product.getDescription(), product.getPrice(),
+                        product.getOwnerId(), now, now));
+            }
+            bumpVersion();
+            return products.size();
+        });
+    }
+
+    @Override
+    public Uni<Void> syncIdSequence() {
+        return Uni.createFrom().item(() -> {
+            ids.accumulateAndGet(rows.isEmpty() ? 0 : rows.lastKey(), Math::max);
+            return null;
+        });
+    }
+
+    @Override
+    public Uni<Boolean> delete(Long id) {
+        return Uni.createFrom().item(() -> logDeletion(rows.remove(id)));
+    }
+
+    @Override
+    public Uni<Boolean> delete(Long id, LocalDateTime expectedUpdatedAt) {
+        return Uni.createFrom().item(() -> {
+            AtomicReference<Product> removed = new AtomicReference<>();
+            rows.computeIfPresent(id, (key, current) -> {
+                if (!Objects.equals(current.getUpdatedAt(), expectedUpdatedAt)) {
+                    return current;
+                }
+                removed.set(current);
+                return null;
+            });
+            return logDeletion(removed.get());
+        });
+    }
+
+    // What the product_deletions trigger does on DELETE
+    private boolean logDeletion(Product removed) {
+        if (removed == null) {
+            return false;
+        }
+        deletions.add(new ProductDeletion(deletionSeq.incrementAndGet(), removed.getId(), LocalDateTime.now()));
+        bumpVersion();
+        return true;
+    }
+
+    // What the catalog_version triggers do after a statement that changed rows
+    private void bumpVersion() {
+        version.updateAndGet(current -> new CatalogVersion(current.version() + 1, rows.size(), LocalDateTime.now()));
+    }
+
+    private Product changed(Product row) {
+        if (row != null) {
+            bumpVersion();
+        }
+        return row;
+    }
+
+    private static Product updated(Product current, Product changes) {
+        return new Product(current.getId(), changes.getName(), changes.getDescription(), changes.getPrice(),
+                changes.getOwnerId(), current.getCreatedAt(), LocalDateTime.now());
+    }
+
+    // Rows leave the "database" as fresh objects, like rows mapped from a result set
+    private static Product copy(Product row) {
+        return row == null ? null : new Product(row.getId(), row.getName(), row.getDescription(), row.getPrice(),
+                row.getOwnerId(), row.getCreatedAt(), row.getUpdatedAt());
+    }
+}
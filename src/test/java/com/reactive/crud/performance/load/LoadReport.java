@@ -0,0 +1,110 @@
+package com.reactive.crud.performance.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One run of the load harness: summary.json (settings + per-route percentiles, the file to diff or pass as
+// a baseline) and one HdrHistogram percentile distribution (.hgrm, milliseconds) per route
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record RouteSummary(String route, int ratePerSecond, long scheduled, long completed, long failures,
+                        long non2xx, Map<Integer, Long> statuses, Map<String, Double> latencyMillis,
+                        double maxSendLagMillis) {
+
+        // Transport failures and non-2xx answers (e.g. 503 from admission control) over the scheduled requests
+        double errorRatio() {
+            return scheduled == 0 ? 0 : (double) (failures + non2xx) / scheduled;
+        }
+    }
+
+    record Summary(String runId, Map<String, Object> settings, List<RouteSummary> routes) {
+    }
+
+    private final String runId;
+    private final Map<String, Object> settings;
+    private final List<ConstantRateLoad.Result> results = new ArrayList<>();
+
+    LoadReport(String runId, Map<String, Object> settings) {
+        this.runId = runId;
+        this.settings = settings;
+    }
+
+    void add(ConstantRateLoad.Result result) {
+        results.add(result);
+    }
+
+    Summary summary() {
+        return new Summary(runId, settings, results.stream().map(LoadReport::summarize).toList());
+    }
+
+    Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (ConstantRateLoad.Result result : results) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(result.route() + ".hgrm")))) {
+                result.latencies().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        Path summary = directory.resolve("summary.json");
+        JSON.writeValue(summary.toFile(), summary());
+        return summary;
+    }
+
+    // Per-route table; with a baseline summary.json the p99 change against it is added
+    void print(PrintStream out, Path baseline) throws IOException {
+        Map<String, Double> baselineP99 = new LinkedHashMap<>();
+        if (baseline != null) {
+            for (JsonNode route : JSON.readTree(baseline.toFile()).path("routes")) {
+                baselineP99.put(route.path("route").asText(), route.path("latencyMillis").path("p99.0").asDouble());
+            }
+        }
+
+        out.println("\n" + "=".repeat(80));
+        out.println("LOAD TEST " + runId + " " + settings);
+        out.println("=".repeat(80));
+        out.printf("%-14s %8s %9s %8s %8s %9s %9s %9s %9s %9s  %s%n",
+                "route", "rate/s", "done", "errors", "non-2xx", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "statuses");
+        for (RouteSummary route : summary().routes()) {
+            Map<String, Double> latency = route.latencyMillis();
+            out.printf("%-14s %8d %9d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    route.route(), route.ratePerSecond(), route.completed(), route.failures(), route.non2xx(),
+                    latency.get("p50.0"), latency.get("p90.0"), latency.get("p99.0"), latency.get("p99.9"),
+                    latency.get("max"), route.statuses());
+            Double before = baselineP99.get(route.route());
+            if (before != null && before > 0) {
+                out.printf("%-14s p99 %.2f ms -> %.2f ms (%+.1f%%)%n", "",
+                        before, latency.get("p99.0"), (latency.get("p99.0") - before) / before * 100);
+            }
+        }
+    }
+
+    private static RouteSummary summarize(ConstantRateLoad.Result result) {
+        Histogram histogram = result.latencies();
+        Map<String, Double> latencyMillis = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            latencyMillis.put("p" + percentile, histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        latencyMillis.put("max", histogram.getMaxValue() / 1000.0);
+        latencyMillis.put("mean", histogram.getMean() / 1000.0);
+        long non2xx = result.statuses().entrySet().stream()
+                .filter(status -> status.getKey() < 200 || status.getKey() > 299)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        return new RouteSummary(result.route(), result.ratePerSecond(), result.scheduled(), result.completed(),
+                result.failures(), non2xx, result.statuses(), latencyMillis, result.maxSendLagMicros() / 1000.0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.reactive.crud.performance.load;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+import java.util.Set;
+
+// Boots the application with in-process stand-ins: Postgres and Redis as in-memory beans, Kafka channels on
+// the SmallRye in-memory connector and the mock mailer instead of SMTP. Nothing outside the JVM is needed
+public class LoadTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Set<Class<?>> getEnabledAlternatives() {
+        return Set.of(InMemoryProductRepository.class, InMemoryProductCacheService.class);
+    }
+
+    // -Dload.admission=false measures the routes without load shedding
+    static boolean admissionControl() {
+        return Boolean.parseBoolean(System.getProperty("load.admission", "true"));
+    }
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+                "mp.messaging.outgoing.product-events.connector", "smallrye-in-memory",
+                "mp.messaging.outgoing.product-snapshots.connector", "smallrye-in-memory",
+                "mp.messaging.incoming.product-events-consumer.connector", "smallrye-in-memory",
+                "mp.messaging.incoming.product-changes.connector", "smallrye-in-memory",
+                "product.snapshot.bootstrap.enabled", "false",
+                "quarkus.mailer.mock", "true",
+                // One client drives all traffic; a per-client limit would only measure 429s
+                "product.rate-limit.enabled", "false",
+                "product.admission.enabled", String.valueOf(admissionControl()),
+                "quarkus.log.category.\"com.reactive.crud\".level", "INFO");
+    }
+}
@@ -0,0 +1,155 @@
+package com.reactive.crud.performance.load;
+
+import io.quarkus.mailer.MockMailbox;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ProductResource yük testi (open-model, sabit hız)
+ *
+ * Uygulama Postgres, Redis, Kafka ve SMTP yerine JVM içi stand-in'lerle açılır (LoadTestProfile).
+ * Her route sırayla load.rate istek/s ile sürülür; latency HdrHistogram ile, coordinated omission
+ * düzeltilmiş olarak (planlanan başlangıç zamanından itibaren) ölçülür.
+ * Rapor: target/load-test/<run-id>/summary.json + route başına .hgrm
+ *
+ * Her route için hata oranı (bağlantı hataları + 2xx olmayan cevaplar, ör. admission control'ün 503'leri)
+ * load.max-error-ratio'yu aşarsa test başarısız olur; her şeyi 503 ile geri çeviren bir koşu geçmez.
+ *
+ * Bilerek kapsam dışı bırakılan route'lar:
+ * - /changes (SSE): uzun ömürlü akış, istek başına latency'si yoktur
+ * - /enriched ve /external/users/**: üçüncü parti API'ye (jsonplaceholder) gider, onun latency'sini ölçer
+ * - /export, /export/sharded, /export/delta, /import ve /exports/{file}: diske yazan/okuyan batch işler;
+ *   sabit hızda sürülmeleri disk doluluğunu ölçer (bkz. ProductExporterTest, BackpressureTest)
+ *
+ * mvn test -Dtest=ProductLoadTest -Dload.test=true [-Dload.rate=200 -Dload.warmup=5 -Dload.duration=20
+ *          -Dload.seed=42 -Dload.max-error-ratio=0.01 -Dload.admission=true
+ *          -Dload.baseline=target/load-test/<önceki-run>/summary.json]
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@EnabledIfSystemProperty(named = "load.test", matches = "true")
+public class ProductLoadTest {
+
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration", 20));
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final int CATALOG_SIZE = Integer.getInteger("load.catalog-size", 1_000);
+    private static final double MAX_ERROR_RATIO = Double.parseDouble(System.getProperty("load.max-error-ratio", "0.01"));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @Inject
+    InMemoryProductRepository repository;
+
+    @Inject
+    @Any
+    InMemoryConnector connector;
+
+    @Inject
+    MockMailbox mailbox;
+
+    @TestHTTPResource("/api/products")
+    URI productsUri;
+
+    @Test
+    void constantRateLoadAgainstProductRoutes() throws Exception {
+        List<Long> catalog = repository.seed(CATALOG_SIZE);
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("ratePerSecond", RATE);
+        settings.put("warmupSeconds", WARMUP.toSeconds());
+        settings.put("durationSeconds", DURATION.toSeconds());
+        settings.put("seed", SEED);
+        settings.put("catalogSize", CATALOG_SIZE);
+        settings.put("maxErrorRatio", MAX_ERROR_RATIO);
+        settings.put("admissionControl", LoadTestProfile.admissionControl());
+        settings.put("java", Runtime.version().toString());
+        settings.put("processors", Runtime.getRuntime().availableProcessors());
+        String runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        LoadReport report = new LoadReport(runId, settings);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            ConstantRateLoad load = new ConstantRateLoad(client, RATE, WARMUP, DURATION);
+
+            // Reads first, against the seeded catalog; writes afterwards so they do not invalidate the listing mid-phase
+            report.add(load.run("list", i -> get(productsUri).header("Accept-Encoding", "gzip").build()));
+            report.add(load.run("stream-ndjson", i -> get(productsUri).header("Accept", "application/x-ndjson").build()));
+            report.add(load.run("get-by-id", i -> get(product(catalog.get(random.nextInt(catalog.size())))).build()));
+            report.add(load.run("create", i -> json(productsUri).POST(body(i)).build()));
+            report.add(load.run("update", i -> json(product(catalog.get(random.nextInt(catalog.size()))))
+                    .PUT(body(i)).build()));
+            clearStandIns();
+
+            // Every delete removes a row of its own
+            List<Long> deletable = repository.seed(
+                    (int) ((WARMUP.toSeconds() + DURATION.toSeconds()) * RATE) + RATE);
+            report.add(load.run("delete", i -> get(product(deletable.get(i))).DELETE().build()));
+            clearStandIns();
+        }
+
+        Path summary = report.write(Path.of("target", "load-test", runId));
+        String baseline = System.getProperty("load.baseline");
+        report.print(System.out, baseline == null ? null : Path.of(baseline));
+        System.out.println("\nReport: " + summary.toAbsolutePath());
+
+        // Latencies depend on the machine and are only reported; every scheduled request must be answered, and
+        // answered successfully often enough that the percentiles describe served requests rather than rejections
+        for (LoadReport.RouteSummary route : report.summary().routes()) {
+            assertThat(route.completed()).as(route.route()).isEqualTo(route.scheduled());
+            assertThat(route.errorRatio())
+                    .as("%s error ratio (failures %d, statuses %s)", route.route(), route.failures(), route.statuses())
+                    .isLessThanOrEqualTo(MAX_ERROR_RATIO);
+        }
+    }
+
+    // Produced events and mails are kept in memory by the stand-ins; drop them between write phases
+    private void clearStandIns() {
+        connector.sink("product-events").clear();
+        connector.sink("product-snapshots").clear();
+        mailbox.clear();
+    }
+
+    private URI product(long id) {
+        return productsUri.resolve("/api/products/" + id);
+    }
+
+    private static HttpRequest.Builder get(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT);
+    }
+
+    private static HttpRequest.Builder json(URI uri) {
+        return get(uri).header("Content-Type", "application/json");
+    }
+
+    private static HttpRequest.BodyPublisher body(int i) {
+        return HttpRequest.BodyPublishers.ofString(
+                "{\"name\":\"Load product " + i + "\",\"description\":\"Created by the load harness\",\"price\":19.99}");
+    }
+}
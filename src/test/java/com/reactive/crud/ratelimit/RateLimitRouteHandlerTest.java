@@ -0,0 +1,88 @@
+package com.reactive.crud.ratelimit;
+
+import com.reactive.crud.dto.ProductRequest;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.service.ProductService;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+class RateLimitRouteHandlerTest {
+
+    private static final ProductRequest REQUEST = new ProductRequest("Keyboard", "Mechanical", new BigDecimal("49.90"));
+
+    @InjectMock
+    RateLimiter rateLimiter;
+
+    @InjectMock
+    ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(rateLimiter, productService);
+    }
+
+    @Test
+    void shouldKeepTheRequestBodyWhileAColdBucketLeasesFromRedis() {
+        // Given - the first request of a client waits on the INCRBY lease, long after its body arrived
+        when(rateLimiter.acquire(anyString(), any(RateLimitConfig.Route.class), anyString()))
+                .thenReturn(Uni.createFrom().item(new RateLimiter.Decision(true, 120, 0))
+                        .onItem().delayIt().by(Duration.ofMillis(300)));
+        when(productService.createProduct(any(ProductRequest.class)))
+                .thenReturn(Uni.createFrom().item(new ProductResponse(7L, REQUEST.name(), REQUEST.description(),
+                        REQUEST.price(), LocalDateTime.now(), LocalDateTime.now())));
+
+        // When
+        given()
+                .contentType(ContentType.JSON)
+                .body(REQUEST)
+                .when().post("/api/products")
+                .then()
+                .statusCode(201)
+                .body("id", is(7));
+
+        // Then
+        ArgumentCaptor<ProductRequest> received = ArgumentCaptor.forClass(ProductRequest.class);
+        verify(productService).createProduct(received.capture());
+        assertThat(received.getValue().name()).isEqualTo("Keyboard");
+        assertThat(received.getValue().price()).isEqualByComparingTo("49.90");
+    }
+
+    @Test
+    void shouldRejectARequestWithABodyOnceTheLeaseIsDenied() {
+        // Given
+        when(rateLimiter.acquire(anyString(), any(RateLimitConfig.Route.class), anyString()))
+                .thenReturn(Uni.createFrom().item(new RateLimiter.Decision(false, 120, 30))
+                        .onItem().delayIt().by(Duration.ofMillis(300)));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body(REQUEST)
+                .when().post("/api/products")
+                .then()
+                .statusCode(429)
+                .header("Retry-After", is("30"))
+                .header("X-RateLimit-Limit", is("120"));
+        verify(productService, never()).createProduct(any(ProductRequest.class));
+    }
+}
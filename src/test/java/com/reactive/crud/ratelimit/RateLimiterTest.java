@@ -0,0 +1,180 @@
+package com.reactive.crud.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.quarkus.redis.datasource.value.ReactiveValueCommands;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class RateLimiterTest {
+
+    private final Map<String, Long> redisCounters = new ConcurrentHashMap<>();
+    private final AtomicInteger redisCalls = new AtomicInteger();
+
+    private SimpleMeterRegistry registry;
+    private RateLimitConfig config;
+    private RateLimitConfig.Route route;
+    private RateLimiter limiter;
+    private long now;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+
+        // INCRBY against an in-memory map instead of Redis
+        ReactiveValueCommands<String, Long> counters = Mockito.mock(ReactiveValueCommands.class);
+        when(counters.incrby(anyString(), anyLong())).thenAnswer(invocation -> {
+            redisCalls.incrementAndGet();
+            long total = redisCounters.merge(invocation.getArgument(0), invocation.getArgument(1), Long::sum);
+            return Uni.createFrom().item(total);
+        });
+        ReactiveKeyCommands<String> keys = Mockito.mock(ReactiveKeyCommands.class);
+        when(keys.pexpire(anyString(), any(Duration.class))).thenReturn(Uni.createFrom().item(true));
+        ReactiveRedisDataSource redis = Mockito.mock(ReactiveRedisDataSource.class);
+        when(redis.value(Long.class)).thenReturn(counters);
+        when(redis.key()).thenReturn(keys);
+
+        route = route("/api/products", null, 25);
+        config = Mockito.mock(RateLimitConfig.class);
+        when(config.leaseSize()).thenReturn(10);
+        when(config.route()).thenReturn(Map.of("products", route));
+
+        limiter = new RateLimiter();
+        limiter.redis = redis;
+        limiter.config = config;
+        limiter.registry = registry;
+        limiter.clock = () -> now;
+        limiter.init();
+    }
+
+    @Test
+    void shouldDecideMostRequestsLocallyFromLeasedPermits() {
+        // When
+        int allowed = acquire("key:a", 30);
+
+        // Then - 25 permits come from three leases (10 + 10 + 5), the fourth lease finds the budget used up
+        assertThat(allowed).isEqualTo(25);
+        assertThat(redisCalls.get()).isEqualTo(4);
+        assertThat(registry.counter("rate.limit.rejected", "route", "products").count()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldShareBudgetAcrossInstances() {
+        // Given - a second instance leasing from the same Redis counters
+        RateLimiter other = new RateLimiter();
+        other.redis = limiter.redis;
+        other.config = config;
+        other.registry = registry;
+        other.clock = () -> now;
+        other.init();
+
+        // When
+        int allowed = acquire("key:a", 15);
+        for (int i = 0; i < 15; i++) {
+            if (other.acquire("products", route, "key:a").await().indefinitely().allowed()) {
+                allowed++;
+            }
+        }
+
+        // Then - permits already leased by the first instance stay with it
+        assertThat(allowed).isEqualTo(20);
+        assertThat(acquire("key:a", 10)).isEqualTo(5);
+    }
+
+    @Test
+    void shouldLimitEachClientSeparatelyAndResetWithTheWindow() {
+        // Given
+        acquire("key:a", 30);
+
+        // When & Then
+        assertThat(acquire("key:b", 1)).isEqualTo(1);
+        RateLimiter.Decision rejected = limiter.acquire("products", route, "key:a").await().indefinitely();
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(60);
+
+        now += Duration.ofMinutes(1).toMillis();
+        assertThat(acquire("key:a", 1)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailOpenWhenRedisIsUnavailable() {
+        // Given
+        when(limiter.redis.value(Long.class).incrby(anyString(), anyLong()))
+                .thenReturn(Uni.createFrom().failure(new IllegalStateException("connection refused")));
+
+        // When & Then
+        assertThat(acquire("key:a", 3)).isEqualTo(3);
+        assertThat(registry.counter("rate.limit.redis.errors").count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldMatchLongestPathPrefixForTheMethod() {
+        // Given
+        RateLimitRouteHandler handler = new RateLimitRouteHandler();
+        // Routes are built first: stubbing them inside thenReturn(...) would nest two stubbings
+        Map<String, RateLimitConfig.Route> routes = Map.of(
+                "read", route("/api/products", Set.of("GET"), 100),
+                "write", route("/api/products", Set.of("POST", "PUT", "DELETE"), 10),
+                "export", route("/api/products/export", null, 1));
+        handler.config = Mockito.mock(RateLimitConfig.class);
+        when(handler.config.route()).thenReturn(routes);
+
+        // When & Then
+        assertThat(handler.match("/api/products/1", "GET").getKey()).isEqualTo("read");
+        assertThat(handler.match("/api/products", "POST").getKey()).isEqualTo("write");
+        assertThat(handler.match("/api/products/export", "GET").getKey()).isEqualTo("export");
+        assertThat(handler.match("/api/external/users", "GET")).isNull();
+    }
+
+    @Test
+    void shouldMatchWholePathSegmentsOnly() {
+        // Given
+        RateLimitRouteHandler handler = new RateLimitRouteHandler();
+        Map<String, RateLimitConfig.Route> routes = Map.of(
+                "read", route("/api/products", Set.of("GET"), 100),
+                "export", route("/api/products/export", null, 1));
+        handler.config = Mockito.mock(RateLimitConfig.class);
+        when(handler.config.route()).thenReturn(routes);
+
+        // When & Then
+        assertThat(handler.match("/api/products/export/sharded", "GET").getKey()).isEqualTo("export");
+        assertThat(handler.match("/api/products/exports/products_export_1.ndjson", "GET").getKey()).isEqualTo("read");
+        assertThat(handler.match("/api/productsfoo", "GET")).isNull();
+    }
+
+    private int acquire(String clientKey, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limiter.acquire("products", route, clientKey).await().indefinitely().allowed()) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    private static RateLimitConfig.Route route(String path, Set<String> methods, int limit) {
+        RateLimitConfig.Route route = Mockito.mock(RateLimitConfig.Route.class);
+        when(route.path()).thenReturn(path);
+        when(route.methods()).thenReturn(Optional.ofNullable(methods));
+        when(route.limit()).thenReturn(limit);
+        when(route.window()).thenReturn(Duration.ofMinutes(1));
+        return route;
+    }
+}
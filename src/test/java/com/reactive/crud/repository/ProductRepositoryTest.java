@@ -7,6 +7,7 @@ import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,6 +30,19 @@ class ProductRepositoryTest {
         assertThat(products).allMatch(p -> p.getId() != null);
     }
 
+    @Test
+    void shouldStreamAllProductsThroughACursor() {
+        // When - a fetch size smaller than the sample data forces several cursor reads
+        var subscriber = productRepository.streamAll(1)
+                .collect().asList()
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        // Then
+        var streamed = subscriber.awaitItem().getItem();
+        var all = productRepository.findAll().collect().asList().await().indefinitely();
+        assertThat(streamed).containsExactlyElementsOf(all);
+    }
+
     @Test
     void shouldFindProductById() {
         // Given - using sample data from init.sql
@@ -109,6 +123,29 @@ class ProductRepositoryTest {
         assertThat(updatedProduct.getUpdatedAt()).isAfter(updatedProduct.getCreatedAt());
     }
 
+    @Test
+    void shouldOnlyUpdateWhenUpdatedAtIsUnchanged() {
+        // Given
+        Product newProduct = new Product();
+        newProduct.setName("Versioned");
+        newProduct.setPrice(new BigDecimal("10.00"));
+        var created = productRepository.create(newProduct).await().indefinitely();
+        var seenUpdatedAt = created.getUpdatedAt();
+
+        // When - the first conditional write wins, the second is based on a stale version
+        created.setName("First writer");
+        var first = productRepository.update(created, seenUpdatedAt).await().indefinitely();
+        created.setName("Second writer");
+        var second = productRepository.update(created, seenUpdatedAt).await().indefinitely();
+
+        // Then
+        assertThat(first).isNotNull();
+        assertThat(first.getName()).isEqualTo("First writer");
+        assertThat(second).isNull();
+        assertThat(productRepository.delete(created.getId(), seenUpdatedAt).await().indefinitely()).isFalse();
+        assertThat(productRepository.delete(created.getId(), first.getUpdatedAt()).await().indefinitely()).isTrue();
+    }
+
     @Test
     void shouldDeleteProduct() {
         // Given - create a product first
@@ -151,4 +188,29 @@ class ProductRepositoryTest {
         var deleted = subscriber.awaitItem().getItem();
         assertThat(deleted).isFalse();
     }
+
+    @Test
+    void shouldBumpTheCatalogVersionOnEveryCommittedWrite() {
+        // Given
+        var before = productRepository.catalogVersion().await().indefinitely();
+        Product newProduct = new Product();
+        newProduct.setName("Versioned");
+        newProduct.setPrice(new BigDecimal("5.00"));
+
+        // When
+        var created = productRepository.create(newProduct).await().indefinitely();
+        var afterCreate = productRepository.catalogVersion().await().indefinitely();
+        productRepository.update(created, LocalDateTime.of(2000, 1, 1, 0, 0)).await().indefinitely();
+        var afterNoOpUpdate = productRepository.catalogVersion().await().indefinitely();
+        productRepository.delete(created.getId()).await().indefinitely();
+        var afterDelete = productRepository.catalogVersion().await().indefinitely();
+
+        // Then - a conditional update that matched no row leaves the version alone
+        assertThat(afterCreate.version()).isGreaterThan(before.version());
+        assertThat(afterCreate.count()).isEqualTo(before.count() + 1);
+        assertThat(afterNoOpUpdate.version()).isEqualTo(afterCreate.version());
+        assertThat(afterDelete.version()).isGreaterThan(afterCreate.version());
+        assertThat(afterDelete.count()).isEqualTo(before.count());
+        assertThat(afterDelete.lastModified()).isNotNull();
+    }
 }
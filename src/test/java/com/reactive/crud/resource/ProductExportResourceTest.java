@@ -0,0 +1,101 @@
+package com.reactive.crud.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+
+@QuarkusTest
+class ProductExportResourceTest {
+
+    private static final String FILE_NAME = "download-test.ndjson";
+    private static final String CONTENT = "{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n";
+
+    private final Path file = Path.of("exports", FILE_NAME);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, CONTENT, StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void shouldDownloadWholeFileWithValidators() {
+        given()
+                .when().get("/api/products/exports/" + FILE_NAME)
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .header("Content-Length", String.valueOf(CONTENT.length()))
+                .header("Accept-Ranges", "bytes")
+                .header("ETag", notNullValue())
+                .body(equalTo(CONTENT));
+    }
+
+    @Test
+    void shouldServeRequestedRange() {
+        given()
+                .header("Range", "bytes=9-17")
+                .when().get("/api/products/exports/" + FILE_NAME)
+                .then()
+                .statusCode(206)
+                .header("Content-Range", "bytes 9-17/" + CONTENT.length())
+                .body(equalTo("{\"id\":2}\n"));
+    }
+
+    @Test
+    void shouldRejectUnsatisfiableRange() {
+        given()
+                .header("Range", "bytes=1000-")
+                .when().get("/api/products/exports/" + FILE_NAME)
+                .then()
+                .statusCode(416)
+                .header("Content-Range", "bytes */" + CONTENT.length());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingEtag() {
+        // Given
+        String etag = given().when().get("/api/products/exports/" + FILE_NAME).then().extract().header("ETag");
+
+        // When & Then
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/products/exports/" + FILE_NAME)
+                .then()
+                .statusCode(304);
+    }
+
+    @Test
+    void shouldIgnoreRangeWhenIfRangeIsStale() {
+        given()
+                .header("Range", "bytes=0-3")
+                .header("If-Range", "\"outdated\"")
+                .when().get("/api/products/exports/" + FILE_NAME)
+                .then()
+                .statusCode(200)
+                .body(equalTo(CONTENT));
+    }
+
+    @Test
+    void shouldRejectPathTraversal() {
+        given()
+                .urlEncodingEnabled(false)
+                .when().get("/api/products/exports/..%2Fpom.xml")
+                .then()
+                .statusCode(400);
+    }
+}
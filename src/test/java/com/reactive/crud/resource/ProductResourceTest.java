@@ -1,13 +1,17 @@
 package com.reactive.crud.resource;
 
+import com.reactive.crud.dto.ProductLookup;
 import com.reactive.crud.dto.ProductRequest;
 import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.entity.CatalogVersion;
 import com.reactive.crud.service.ProductService;
+import com.reactive.crud.service.StaleProductException;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.Json;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -15,8 +19,10 @@ import org.mockito.Mockito;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.function.Predicate;
 
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
@@ -57,6 +63,8 @@ class ProductResourceTest {
                 LocalDateTime.now()
         );
 
+        when(productService.getCatalogVersion())
+                .thenReturn(Uni.createFrom().item(new CatalogVersion(4, 2, response2.updatedAt())));
         when(productService.getAllProducts())
                 .thenReturn(Multi.createFrom().items(sampleResponse, response2));
 
@@ -74,11 +82,48 @@ class ProductResourceTest {
                 .body("[1].name", is("Product 2"));
     }
 
+    @Test
+    void shouldStreamProductsAsNdjson() {
+        // Given
+        when(productService.streamAllProducts())
+                .thenReturn(Multi.createFrom().items(sampleResponse, sampleResponse));
+
+        // When
+        String body = given()
+                .accept("application/x-ndjson")
+                .when().get("/api/products")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .extract().asString();
+
+        // Then
+        String[] lines = body.strip().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,");
+    }
+
+    @Test
+    void shouldStreamProductsAsServerSentEvents() {
+        // Given
+        when(productService.streamAllProducts())
+                .thenReturn(Multi.createFrom().items(sampleResponse));
+
+        // When & Then
+        given()
+                .accept("text/event-stream")
+                .when().get("/api/products")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("text/event-stream"))
+                .body(containsString("data:{\"id\":1,"));
+    }
+
     @Test
     void shouldGetProductById() {
         // Given
-        when(productService.getProductById(1L))
-                .thenReturn(Uni.createFrom().item(sampleResponse));
+        when(productService.lookupProductById(1L))
+                .thenReturn(Uni.createFrom().item(ProductLookup.fresh(sampleResponse)));
 
         // When & Then
         given()
@@ -92,10 +137,148 @@ class ProductResourceTest {
                 .body("price", is(99.99f));
     }
 
+    @Test
+    void shouldAnswerNotModifiedForCurrentProductEtag() {
+        // Given
+        when(productService.lookupProductById(1L))
+                .thenReturn(Uni.createFrom().item(ProductLookup.fresh(sampleResponse)));
+        String etag = given().when().get("/api/products/1").then().extract().header("ETag");
+
+        // When & Then
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/products/1")
+                .then()
+                .statusCode(304)
+                .header("ETag", is(etag));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForUnchangedCatalogWithoutListingProducts() {
+        // Given
+        when(productService.getCatalogVersion())
+                .thenReturn(Uni.createFrom().item(new CatalogVersion(7, 1, sampleResponse.updatedAt())));
+        when(productService.getAllProducts())
+                .thenReturn(Multi.createFrom().items(sampleResponse));
+        String etag = given().when().get("/api/products").then().statusCode(200).extract().header("ETag");
+        Mockito.clearInvocations(productService);
+
+        // When & Then
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/products")
+                .then()
+                .statusCode(304);
+        Mockito.verify(productService, Mockito.never()).getAllProducts();
+    }
+
+    @Test
+    void shouldServeLargeListingGzipped() {
+        // Given
+        ProductResponse[] products = new ProductResponse[50];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new ProductResponse((long) i + 1, "Product " + i, "Description " + i,
+                    new BigDecimal("19.99"), LocalDateTime.now(), LocalDateTime.now());
+        }
+        when(productService.getCatalogVersion())
+                .thenReturn(Uni.createFrom().item(new CatalogVersion(12, products.length, LocalDateTime.now())));
+        when(productService.getAllProducts())
+                .thenReturn(Multi.createFrom().items(products));
+
+        // When & Then - REST Assured decompresses the body transparently
+        given()
+                .header("Accept-Encoding", "gzip")
+                .when().get("/api/products")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", is("gzip"))
+                .header("Vary", containsString("Accept-Encoding"))
+                .body("$", hasSize(50));
+    }
+
+    @Test
+    void shouldStreamListingAboveTheCacheLimitInsteadOfCachingIt() {
+        // Given - the catalog version reports more rows than product.listing.cache.max-rows
+        ProductResponse[] products = new ProductResponse[50];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new ProductResponse((long) i + 1, "Product " + i, "Description " + i,
+                    new BigDecimal("19.99"), LocalDateTime.now(), LocalDateTime.now());
+        }
+        when(productService.getCatalogVersion())
+                .thenReturn(Uni.createFrom().item(new CatalogVersion(12, 1_000_000, LocalDateTime.now())));
+        when(productService.streamAllProducts())
+                .thenReturn(Multi.createFrom().items(products));
+
+        // When & Then
+        given()
+                .header("Accept-Encoding", "gzip")
+                .when().get("/api/products")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", is("gzip"))
+                .header("ETag", endsWith("-gz\""))
+                .body("$", hasSize(50))
+                .body("[49].id", is(50));
+        given()
+                .header("Accept-Encoding", "identity")
+                .when().get("/api/products")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .body("$", hasSize(50));
+        Mockito.verify(productService, Mockito.never()).getAllProducts();
+    }
+
+    @Test
+    void shouldTagGzippedListingSeparatelyFromIdentityListing() {
+        // Given
+        ProductResponse[] products = new ProductResponse[50];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new ProductResponse((long) i + 1, "Product " + i, "Description " + i,
+                    new BigDecimal("19.99"), LocalDateTime.now(), LocalDateTime.now());
+        }
+        when(productService.getCatalogVersion())
+                .thenReturn(Uni.createFrom().item(new CatalogVersion(12, products.length, LocalDateTime.now())));
+        when(productService.getAllProducts())
+                .thenReturn(Multi.createFrom().items(products));
+
+        // When
+        String gzipEtag = given().header("Accept-Encoding", "gzip")
+                .when().get("/api/products").then().statusCode(200).extract().header("ETag");
+        String identityEtag = given().header("Accept-Encoding", "identity")
+                .when().get("/api/products").then().statusCode(200).extract().header("ETag");
+
+        // Then
+        assertThat(gzipEtag).isNotEqualTo(identityEtag).endsWith("-gz\"");
+        given()
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", gzipEtag)
+                .when().get("/api/products")
+                .then()
+                .statusCode(304)
+                .header("ETag", is(gzipEtag));
+    }
+
+    @Test
+    void shouldMarkProductServedFromShadowCopyAsStale() {
+        // Given - the database failed and the product came from the shadow copy cached 90 seconds ago
+        when(productService.lookupProductById(1L))
+                .thenReturn(Uni.createFrom().item(new ProductLookup(sampleResponse, true, 90)));
+
+        // When & Then
+        given()
+                .when().get("/api/products/1")
+                .then()
+                .statusCode(200)
+                .header("Warning", is("110 - \"Response is Stale\""))
+                .header("Age", is("90"))
+                .body("id", is(1));
+    }
+
     @Test
     void shouldReturn404WhenProductNotFound() {
         // Given
-        when(productService.getProductById(999L))
+        when(productService.lookupProductById(999L))
                 .thenReturn(Uni.createFrom().nullItem());
 
         // When & Then
@@ -212,6 +395,60 @@ class ProductResourceTest {
                 .statusCode(404);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAcceptIfMatchFromCachedProductOnUpdate() {
+        // Given - the stored row has sub-second precision; the GET is answered from a Redis round trip of it
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+        ProductResponse stored = new ProductResponse(1L, "Test Product", "Test Description",
+                new BigDecimal("99.99"), updatedAt, updatedAt);
+        ProductResponse cached = Json.decodeValue(Json.encode(stored), ProductResponse.class);
+        when(productService.lookupProductById(1L))
+                .thenReturn(Uni.createFrom().item(ProductLookup.fresh(cached)));
+        when(productService.updateProduct(eq(1L), any(ProductRequest.class), any()))
+                .thenAnswer(invocation -> ((Predicate<ProductResponse>) invocation.getArgument(2)).test(stored)
+                        ? Uni.createFrom().item(stored)
+                        : Uni.createFrom().failure(new StaleProductException(1L)));
+        String etag = given().when().get("/api/products/1").then().statusCode(200).extract().header("ETag");
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", etag)
+                .body(new ProductRequest("Updated Product", "Updated Description", new BigDecimal("199.99")))
+                .when().put("/api/products/1")
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRejectUpdateWithStaleIfMatch() {
+        // Given - the service evaluates the precondition against the stored product
+        ProductRequest request = new ProductRequest("Updated Product", "Updated Description", new BigDecimal("199.99"));
+        when(productService.updateProduct(eq(1L), any(ProductRequest.class), any()))
+                .thenAnswer(invocation -> ((Predicate<ProductResponse>) invocation.getArgument(2)).test(sampleResponse)
+                        ? Uni.createFrom().item(sampleResponse)
+                        : Uni.createFrom().failure(new StaleProductException(1L)));
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", "\"1-outdated\"")
+                .body(request)
+                .when().put("/api/products/1")
+                .then()
+                .statusCode(412);
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", "*")
+                .body(request)
+                .when().put("/api/products/1")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue());
+    }
+
     @Test
     void shouldDeleteProduct() {
         // Given
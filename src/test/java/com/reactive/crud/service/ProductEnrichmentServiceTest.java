@@ -0,0 +1,77 @@
+package com.reactive.crud.service;
+
+import com.reactive.crud.dto.EnrichedProductResponse;
+import com.reactive.crud.dto.ExternalUserDto;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.http.HttpClientService;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductEnrichmentServiceTest {
+
+    private ProductService productService;
+    private HttpClientService httpClientService;
+    private ProductEnrichmentService enrichmentService;
+
+    @BeforeEach
+    void setUp() {
+        productService = Mockito.mock(ProductService.class);
+        httpClientService = Mockito.mock(HttpClientService.class);
+        when(httpClientService.fetchUsersByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            Map<Long, ExternalUserDto> users = ids.stream()
+                    .collect(Collectors.toMap(Function.identity(),
+                            id -> new ExternalUserDto(id, "User " + id, "user" + id + "@test", "user" + id)));
+            return Uni.createFrom().item(users).onItem().delayIt().by(Duration.ofMillis(50));
+        });
+
+        enrichmentService = new ProductEnrichmentService();
+        enrichmentService.productService = productService;
+        enrichmentService.httpClientService = httpClientService;
+        enrichmentService.batchSize = 2;
+        enrichmentService.concurrency = 4;
+    }
+
+    @Test
+    void shouldAttachOwnersResolvedPerBatch() {
+        // Given - five products in three batches, the second one without owners
+        when(productService.getAllProducts()).thenReturn(Multi.createFrom().items(
+                product(1L, 10L), product(2L, 10L), product(3L, null), product(4L, null), product(5L, 30L)));
+
+        // When
+        List<EnrichedProductResponse> enriched = enrichmentService.getEnrichedProducts()
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(enriched).hasSize(5);
+        assertThat(enriched).allMatch(item -> item.product().ownerId() == null
+                ? item.owner() == null
+                : item.owner().id().equals(item.product().ownerId()));
+        // The ownerless batch is never looked up
+        verify(httpClientService, times(2)).fetchUsersByIds(anyCollection());
+    }
+
+    private ProductResponse product(Long id, Long ownerId) {
+        return new ProductResponse(id, "Product " + id, null, BigDecimal.TEN, ownerId,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+}
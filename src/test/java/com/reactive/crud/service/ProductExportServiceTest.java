@@ -0,0 +1,183 @@
+package com.reactive.crud.service;
+
+import com.reactive.crud.dto.ExportResult;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.dto.ProductTombstone;
+import com.reactive.crud.dto.ShardedExportResult;
+import com.reactive.crud.entity.Product;
+import com.reactive.crud.entity.ProductDeletion;
+import com.reactive.crud.file.ExportCompression;
+import com.reactive.crud.file.ExportFormat;
+import com.reactive.crud.file.ExportManifest;
+import com.reactive.crud.file.ExportManifestStore;
+import com.reactive.crud.file.ProductExporter;
+import com.reactive.crud.repository.ProductRepository;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.tuples.Tuple2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductExportServiceTest {
+
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private ProductRepository productRepository;
+    private ProductExporter productExporter;
+    private ExportManifestStore manifestStore;
+    private ProductExportService exportService;
+    private final List<Object> exported = new ArrayList<>();
+    private final List<ExportManifest> saved = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = Mockito.mock(ProductRepository.class);
+        productExporter = Mockito.mock(ProductExporter.class);
+        manifestStore = Mockito.mock(ExportManifestStore.class);
+
+        ExportManifest previous = ExportManifest.empty().record(new ExportManifest.Entry(
+                "exports/products_export_1.json", ExportManifest.Type.FULL, 10, 0, WATERMARK, 7, WATERMARK));
+        when(manifestStore.load()).thenReturn(Uni.createFrom().item(previous));
+        when(manifestStore.update(any())).thenAnswer(invocation -> {
+            ExportManifest updated = ((UnaryOperator<ExportManifest>) invocation.getArgument(0)).apply(previous);
+            saved.add(updated);
+            return Uni.createFrom().item(updated);
+        });
+        when(productExporter.export(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Multi<?> items = invocation.getArgument(1);
+            return items.onItem().invoke(exported::add).collect().asList()
+                    .onItem().transform(list -> ExportResult.of("exports/products_delta_2.ndjson", "ndjson", "none",
+                            list.size(), 100, 100, 1_000_000));
+        });
+
+        exportService = new ProductExportService();
+        exportService.productRepository = productRepository;
+        exportService.productExporter = productExporter;
+        exportService.manifestStore = manifestStore;
+        exportService.fetchSize = 100;
+        exportService.deltaOverlap = Duration.ofSeconds(5);
+        exportService.maxShards = 8;
+    }
+
+    @Test
+    void shouldExportChangesAndTombstonesSinceTheWatermark() {
+        // Given
+        when(productRepository.streamUpdatedSince(eq(WATERMARK.minusSeconds(5)), anyInt())).thenReturn(Multi.createFrom().items(
+                product(1L, WATERMARK.plusMinutes(1)), product(2L, WATERMARK.plusMinutes(2))));
+        when(productRepository.streamDeletionsSince(eq(7L), anyInt())).thenReturn(Multi.createFrom().items(
+                new ProductDeletion(8, 3L, WATERMARK.plusMinutes(3)), new ProductDeletion(9, 4L, WATERMARK.plusMinutes(4))));
+
+        // When
+        exportService.deltaExport(ExportCompression.NONE).await().atMost(Duration.ofSeconds(5));
+
+        // Then - tombstones first, then changes
+        assertThat(exported).hasSize(4);
+        assertThat(exported.get(1)).isEqualTo(new ProductTombstone(4L, true, WATERMARK.plusMinutes(4)));
+        assertThat(exported.get(3)).isInstanceOf(ProductResponse.class);
+        verify(productExporter).export(eq("products_delta"), any(), eq(ExportFormat.NDJSON), eq(ExportCompression.NONE));
+
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).updatedAtWatermark()).isEqualTo(WATERMARK.plusMinutes(2));
+        assertThat(saved.get(0).deletionWatermark()).isEqualTo(9);
+        ExportManifest.Entry entry = saved.get(0).exports().get(1);
+        assertThat(entry.type()).isEqualTo(ExportManifest.Type.DELTA);
+        assertThat(entry.records()).isEqualTo(2);
+        assertThat(entry.tombstones()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldWriteTheRowOfAReimportedProductAfterItsTombstone() {
+        // Given - product 3 was deleted, then imported again with the same id
+        when(productRepository.streamUpdatedSince(any(), anyInt())).thenReturn(Multi.createFrom().items(
+                product(3L, WATERMARK.plusMinutes(5))));
+        when(productRepository.streamDeletionsSince(eq(7L), anyInt())).thenReturn(Multi.createFrom().items(
+                new ProductDeletion(8, 3L, WATERMARK.plusMinutes(3))));
+
+        // When
+        exportService.deltaExport(ExportCompression.NONE).await().atMost(Duration.ofSeconds(5));
+
+        // Then - a consumer applying the lines in order ends up with the product
+        assertThat(exported).hasSize(2);
+        assertThat(exported.get(0)).isEqualTo(new ProductTombstone(3L, true, WATERMARK.plusMinutes(3)));
+        assertThat(exported.get(1)).isInstanceOfSatisfying(ProductResponse.class,
+                product -> assertThat(product.id()).isEqualTo(3L));
+    }
+
+    @Test
+    void shouldKeepWatermarksWhenNothingChanged() {
+        // Given
+        when(productRepository.streamUpdatedSince(any(), anyInt())).thenReturn(Multi.createFrom().empty());
+        when(productRepository.streamDeletionsSince(eq(7L), anyInt())).thenReturn(Multi.createFrom().empty());
+
+        // When
+        exportService.deltaExport(ExportCompression.GZIP).await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).updatedAtWatermark()).isEqualTo(WATERMARK);
+        assertThat(saved.get(0).deletionWatermark()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldExportIdRangesInParallelParts() {
+        // Given - ids 1..10 in three shards
+        when(productRepository.maxDeletionSeq()).thenReturn(Uni.createFrom().item(9L));
+        when(productRepository.idBounds()).thenReturn(Uni.createFrom().item(Tuple2.of(1L, 10L)));
+        when(productRepository.streamIdRange(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            return Multi.createFrom().range((int) from, (int) to)
+                    .onItem().transform(id -> product((long) id, WATERMARK.plusMinutes(id)));
+        });
+        when(productExporter.exportTo(any(), any(), any(), any())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            Multi<?> items = invocation.getArgument(1);
+            return items.collect().asList()
+                    .onItem().transform(list -> ExportResult.of("exports/" + name + ".json", "json", "none",
+                            list.size(), list.size() * 10L, list.size() * 10L, 1_000_000));
+        });
+
+        // When
+        ShardedExportResult result = exportService.shardedExport(3, ExportFormat.JSON, ExportCompression.NONE)
+                .await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(result.shards()).extracting(ShardedExportResult.Shard::fromId).containsExactly(1L, 5L, 9L);
+        assertThat(result.shards()).extracting(shard -> shard.result().records()).containsExactly(4L, 4L, 2L);
+        assertThat(result.shards().get(0).result().path()).contains("_part-001-of-003");
+        assertThat(result.records()).isEqualTo(10);
+
+        assertThat(saved).hasSize(1);
+        assertThat(saved.get(0).updatedAtWatermark()).isEqualTo(WATERMARK.plusMinutes(10));
+        assertThat(saved.get(0).deletionWatermark()).isEqualTo(9);
+    }
+
+    @Test
+    void shouldRejectTooManyShards() {
+        assertThatThrownBy(() -> exportService.shardedExport(64, ExportFormat.JSON, ExportCompression.NONE)
+                .await().atMost(Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Product product(Long id, LocalDateTime updatedAt) {
+        return new Product(id, "Product " + id, null, BigDecimal.ONE, updatedAt, updatedAt);
+    }
+}
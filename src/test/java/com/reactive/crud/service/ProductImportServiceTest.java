@@ -0,0 +1,166 @@
+package com.reactive.crud.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reactive.crud.cache.ProductCacheService;
+import com.reactive.crud.dto.ImportReport;
+import com.reactive.crud.entity.Product;
+import com.reactive.crud.file.FileService;
+import com.reactive.crud.repository.ProductRepository;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.validation.Validation;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductImportServiceTest {
+
+    private FileService fileService;
+    private ProductRepository productRepository;
+    private ProductCacheService cacheService;
+    private ProductImportService importService;
+    private final List<Product> imported = new ArrayList<>();
+    private final List<Long> invalidated = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        fileService = Mockito.mock(FileService.class);
+        productRepository = Mockito.mock(ProductRepository.class);
+        cacheService = Mockito.mock(ProductCacheService.class);
+
+        when(fileService.exportPath(anyString())).thenAnswer(invocation -> Path.of("exports", invocation.<String>getArgument(0)));
+        when(productRepository.importBatch(any())).thenAnswer(invocation -> {
+            List<Product> batch = invocation.getArgument(0);
+            synchronized (imported) {
+                imported.addAll(batch);
+            }
+            return Uni.createFrom().item(batch.size());
+        });
+        when(productRepository.syncIdSequence()).thenReturn(Uni.createFrom().voidItem());
+        when(cacheService.deleteAll(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            synchronized (invalidated) {
+                invalidated.addAll(ids);
+            }
+            return Uni.createFrom().item(ids.size());
+        });
+
+        importService = new ProductImportService();
+        importService.fileService = fileService;
+        importService.productRepository = productRepository;
+        importService.cacheService = cacheService;
+        importService.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        importService.validator = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory()
+                .getValidator();
+        importService.batchSize = 2;
+        importService.concurrency = 2;
+        importService.maxLineLength = 1024;
+    }
+
+    @Test
+    void shouldImportNdjsonInBatchesAndRejectInvalidLines() {
+        // Given
+        givenLines(
+                "{\"id\":1,\"name\":\"Laptop\",\"price\":999.99,\"ownerId\":1}",
+                "{\"name\":\"Mouse\",\"description\":\"Wireless\",\"price\":19.50}",
+                "",
+                "{\"name\":\"\",\"price\":5}",
+                "not json",
+                "{\"id\":7,\"name\":\"Desk\",\"price\":120}\r");
+
+        // When
+        ImportReport report = importService.importFile("products.ndjson").await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(report.lines()).isEqualTo(6);
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.rejections()).extracting(ImportReport.Rejection::line).containsExactly(4L, 5L);
+        assertThat(imported).extracting(Product::getName).containsExactlyInAnyOrder("Laptop", "Mouse", "Desk");
+        assertThat(imported).filteredOn(product -> product.getName().equals("Mouse"))
+                .singleElement()
+                .satisfies(product -> assertThat(product.getPrice()).isEqualByComparingTo(new BigDecimal("19.50")));
+        verify(productRepository, Mockito.times(2)).importBatch(any());
+        verify(productRepository).syncIdSequence();
+
+        // Only rows with an id can be cached
+        assertThat(invalidated).containsExactlyInAnyOrder(1L, 7L);
+        assertThat(report.cacheInvalidation().requested()).isEqualTo(2);
+        assertThat(report.cacheInvalidation().failedBatches()).isZero();
+    }
+
+    @Test
+    void shouldImportCsvUsingTheHeaderForColumnOrder() {
+        // Given - columns in a different order than the export writes them
+        givenLines(
+                "price,name,id,description",
+                "10.00,Lamp,,\"Desk lamp, LED\"",
+                "abc,Broken,,",
+                "2.50,Pen,42,");
+
+        // When
+        ImportReport report = importService.importFile("products.csv").await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(1);
+        assertThat(report.rejections()).singleElement().extracting(ImportReport.Rejection::line).isEqualTo(3L);
+        assertThat(imported).filteredOn(product -> product.getName().equals("Lamp"))
+                .singleElement()
+                .satisfies(product -> {
+                    assertThat(product.getId()).isNull();
+                    assertThat(product.getDescription()).isEqualTo("Desk lamp, LED");
+                });
+        assertThat(invalidated).containsExactly(42L);
+    }
+
+    @Test
+    void shouldReportCacheFailuresWithoutFailingTheImport() {
+        // Given
+        givenLines("{\"id\":3,\"name\":\"Chair\",\"price\":49}");
+        Mockito.doReturn(Uni.createFrom().failure(new RuntimeException("Redis down"))).when(cacheService).deleteAll(any());
+
+        // When
+        ImportReport report = importService.importFile("products.ndjson").await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.cacheInvalidation().failedBatches()).isEqualTo(1);
+        assertThat(report.cacheInvalidation().removed()).isZero();
+    }
+
+    @Test
+    void shouldRejectUnsupportedFiles() {
+        // When & Then
+        assertThatThrownBy(() -> importService.importFile("products.ndjson.gz").await().indefinitely())
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(fileService, never()).readLines(any(), anyInt());
+    }
+
+    private void givenLines(String... lines) {
+        when(fileService.readLines(any(), anyInt())).thenReturn(Multi.createFrom().iterable(
+                Arrays.stream(lines).map(Buffer::buffer).toList()));
+    }
+}
@@ -0,0 +1,112 @@
+package com.reactive.crud.service;
+
+import com.reactive.crud.cache.ProductCacheService;
+import com.reactive.crud.dto.ProductLookup;
+import com.reactive.crud.dto.ProductResponse;
+import com.reactive.crud.dto.ProductShadowCopy;
+import com.reactive.crud.entity.Product;
+import com.reactive.crud.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.vertx.pgclient.PgException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+class ProductServiceDegradedReadTest {
+
+    private static final ProductResponse PRODUCT = new ProductResponse(1L, "Keyboard", "Mechanical",
+            new BigDecimal("49.90"), LocalDateTime.now(), LocalDateTime.now());
+
+    private SimpleMeterRegistry registry;
+    private ProductRepository productRepository;
+    private ProductCacheService cacheService;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        productRepository = Mockito.mock(ProductRepository.class);
+        cacheService = Mockito.mock(ProductCacheService.class);
+        // The regular cache entry has expired
+        when(cacheService.get(anyLong())).thenReturn(Uni.createFrom().nullItem());
+        when(cacheService.set(anyLong(), any())).thenReturn(Uni.createFrom().voidItem());
+
+        productService = new ProductService();
+        productService.productRepository = productRepository;
+        productService.cacheService = cacheService;
+        productService.registry = registry;
+        productService.dbReadTimeout = Duration.ofMillis(100);
+        productService.shadowReadTimeout = Duration.ofMillis(100);
+    }
+
+    @Test
+    void shouldServeShadowCopyWhenDatabaseFails() {
+        // Given
+        when(productRepository.findById(1L))
+                .thenReturn(Uni.createFrom().failure(new PgException("connection refused", "FATAL", "08006", null)));
+        when(cacheService.getShadow(1L)).thenReturn(Uni.createFrom().item(
+                new ProductShadowCopy(PRODUCT, System.currentTimeMillis() - 90_000)));
+
+        // When
+        ProductLookup lookup = productService.lookupProductById(1L).await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(lookup.stale()).isTrue();
+        assertThat(lookup.product()).isEqualTo(PRODUCT);
+        assertThat(lookup.ageSeconds()).isBetween(89L, 91L);
+        assertThat(registry.counter("product.cache.stale.served").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeShadowCopyWhenDatabaseIsTooSlow() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Uni.createFrom().nothing());
+        when(cacheService.getShadow(1L)).thenReturn(Uni.createFrom().item(
+                new ProductShadowCopy(PRODUCT, System.currentTimeMillis())));
+
+        // When
+        ProductLookup lookup = productService.lookupProductById(1L).await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(lookup.stale()).isTrue();
+    }
+
+    @Test
+    void shouldReportDatabaseFailureWithoutShadowCopy() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Uni.createFrom().failure(new IllegalStateException("pool closed")));
+        when(cacheService.getShadow(1L)).thenReturn(Uni.createFrom().nullItem());
+
+        // When & Then
+        assertThatThrownBy(() -> productService.lookupProductById(1L).await().atMost(Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("pool closed");
+    }
+
+    @Test
+    void shouldReadFreshRowWhileDatabaseIsHealthy() {
+        // Given
+        Product product = new Product(1L, "Keyboard", "Mechanical", new BigDecimal("49.90"),
+                PRODUCT.createdAt(), PRODUCT.updatedAt());
+        when(productRepository.findById(1L)).thenReturn(Uni.createFrom().item(product));
+
+        // When
+        ProductLookup lookup = productService.lookupProductById(1L).await().atMost(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(lookup.stale()).isFalse();
+        assertThat(lookup.product().name()).isEqualTo("Keyboard");
+        Mockito.verify(cacheService, Mockito.never()).getShadow(anyLong());
+    }
+}
@@ -0,0 +1,160 @@
+package com.reactive.crud.service;
+
+import com.reactive.crud.deadline.RequestDeadline;
+import com.reactive.crud.service.SideEffectFanOut.Policy;
+import com.reactive.crud.service.SideEffectFanOut.SideEffect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SideEffectFanOutTest {
+
+    private final Map<String, SideEffectConfig.Effect> effects = new HashMap<>();
+    private SimpleMeterRegistry registry;
+    private SideEffectFanOut fanOut;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        fanOut = new SideEffectFanOut();
+        fanOut.registry = registry;
+        fanOut.config = new SideEffectConfig() {
+            @Override
+            public Policy defaultPolicy() {
+                return Policy.AWAIT;
+            }
+
+            @Override
+            public Duration defaultTimeout() {
+                return Duration.ofSeconds(2);
+            }
+
+            @Override
+            public Map<String, Effect> effect() {
+                return effects;
+            }
+        };
+    }
+
+    @Test
+    void shouldAwaitEffectsInParallel() {
+        // Given - three awaited effects of 300ms each
+        long start = System.currentTimeMillis();
+
+        // When
+        var subscriber = fanOut.run(
+                        SideEffect.of("a", () -> delayed(300)),
+                        SideEffect.of("b", () -> delayed(300)),
+                        SideEffect.of("c", () -> delayed(300)))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        // Then - latency is max(effects), not the sum
+        subscriber.awaitItem(Duration.ofSeconds(5));
+        long elapsed = System.currentTimeMillis() - start;
+        assertThat(elapsed).isLessThan(800);
+        assertThat(registry.timer("product.side.effect",
+                "effect", "a", "policy", "AWAIT", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotWaitForDetachedEffects() {
+        // Given
+        effects.put("slow", effect(Policy.DETACHED, Duration.ofSeconds(2)));
+        AtomicBoolean detachedDone = new AtomicBoolean();
+
+        // When
+        var subscriber = fanOut.run(
+                        SideEffect.of("slow", () -> delayed(500).invoke(() -> detachedDone.set(true))))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        // Then
+        subscriber.awaitItem(Duration.ofMillis(200));
+        assertThat(detachedDone).isFalse();
+        await().atMost(Duration.ofSeconds(2)).untilTrue(detachedDone);
+    }
+
+    @Test
+    void shouldRecoverFromFailuresAndTimeouts() {
+        // Given
+        effects.put("hanging", effect(Policy.AWAIT, Duration.ofMillis(100)));
+
+        // When
+        var subscriber = fanOut.run(
+                        SideEffect.of("broken", () -> Uni.createFrom().failure(new IllegalStateException("boom"))),
+                        SideEffect.of("hanging", () -> Uni.createFrom().nothing()))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        // Then - the write still succeeds, each problem is recorded with its outcome
+        subscriber.awaitItem(Duration.ofSeconds(2));
+        assertThat(registry.timer("product.side.effect",
+                "effect", "broken", "policy", "AWAIT", "outcome", "failure").count()).isEqualTo(1);
+        assertThat(registry.timer("product.side.effect",
+                "effect", "hanging", "policy", "AWAIT", "outcome", "timeout").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunDeferredEffectsAfterAwaitedOnes() {
+        // Given
+        effects.put("later", effect(Policy.DEFERRED, Duration.ofSeconds(1)));
+        AtomicBoolean awaitedDone = new AtomicBoolean();
+        AtomicBoolean deferredSawAwaited = new AtomicBoolean();
+
+        // When
+        fanOut.run(
+                        SideEffect.of("later", () -> Uni.createFrom().item(() -> {
+                            deferredSawAwaited.set(awaitedDone.get());
+                            return true;
+                        })),
+                        SideEffect.of("now", () -> delayed(100).invoke(() -> awaitedDone.set(true))))
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitItem(Duration.ofSeconds(2));
+
+        // Then
+        await().atMost(Duration.ofSeconds(2)).untilTrue(deferredSawAwaited);
+    }
+
+    @Test
+    void shouldKeepRunningAwaitedEffectsAfterTheDeadline() {
+        // Given - the request has 100ms left, the cache write takes 400ms
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(100), () -> false);
+        AtomicBoolean cached = new AtomicBoolean();
+
+        // When
+        var subscriber = fanOut.run(deadline, SideEffect.of("cache", () -> delayed(400).invoke(() -> cached.set(true))))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        // Then - the request stops waiting, the committed change still reaches the cache
+        subscriber.awaitItem(Duration.ofMillis(300));
+        assertThat(cached).isFalse();
+        await().atMost(Duration.ofSeconds(2)).untilTrue(cached);
+    }
+
+    private Uni<Void> delayed(long millis) {
+        return Uni.createFrom().voidItem().onItem().delayIt().by(Duration.ofMillis(millis));
+    }
+
+    private SideEffectConfig.Effect effect(Policy policy, Duration timeout) {
+        return new SideEffectConfig.Effect() {
+            @Override
+            public Optional<Policy> policy() {
+                return Optional.of(policy);
+            }
+
+            @Override
+            public Optional<Duration> timeout() {
+                return Optional.of(timeout);
+            }
+        };
+    }
+}